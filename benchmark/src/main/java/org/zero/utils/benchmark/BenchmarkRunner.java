@@ -0,0 +1,41 @@
+package org.zero.utils.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+
+/**
+ * 运行基准测试并附带GC分析（分配速率gc.alloc.rate.norm），结果以JSON写入results目录作为基线
+ * <p>
+ * 参数为要运行的测试类名的正则（默认全部），如：java -cp target/benchmarks.jar org.zero.utils.benchmark.BenchmarkRunner TreeBuild
+ *
+ * @author : cgl
+ * @version : 1.0
+ * @since : 2026/10/17 15:12
+ **/
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws RunnerException {
+        String include = args.length > 0 ? args[0] : ".*Benchmark";
+        File dir = new File("results");
+        if (!dir.exists() && !dir.mkdirs()) {
+            throw new IllegalStateException("无法创建结果目录：" + dir.getAbsolutePath());
+        }
+        String file = new File(dir, "baseline-" + new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date()) + ".json").getPath();
+        Options options = new OptionsBuilder()
+                .include(include)
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result(file)
+                .build();
+        new Runner(options).run();
+    }
+
+}
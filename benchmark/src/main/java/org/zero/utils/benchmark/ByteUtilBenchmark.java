@@ -0,0 +1,77 @@
+package org.zero.utils.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.zero.utils.support.ByteUtil;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 字节数组与十六进制字符串互转：小报文（16字节）与大报文（64KB）；整数转字节数组按报文大小逐个转换payloadSize / 8个Long
+ *
+ * @author : cgl
+ * @version : 1.0
+ * @since : 2026/10/17 15:12
+ **/
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ByteUtilBenchmark {
+
+    @Param({"16", "65536"})
+    private int payloadSize;
+
+    private byte[] bytes;
+
+    private String hexString;
+
+    /**
+     * 预先装箱，不把装箱计入耗时与分配
+     **/
+    private Long[] numbers;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Random random = new Random(payloadSize);
+        bytes = new byte[payloadSize];
+        random.nextBytes(bytes);
+        hexString = ByteUtil.byteArray2HexString(bytes);
+        numbers = new Long[payloadSize / 8];
+        for (int i = 0; i < numbers.length; i++) {
+            numbers[i] = random.nextLong();
+        }
+    }
+
+    @Benchmark
+    public String byteArray2HexString() {
+        return ByteUtil.byteArray2HexString(bytes);
+    }
+
+    @Benchmark
+    public byte[] hexString2ByteArray() {
+        return ByteUtil.hexString2ByteArray(hexString);
+    }
+
+    @Benchmark
+    public void num2ByteArray(Blackhole blackhole) {
+        for (Long number : numbers) {
+            blackhole.consume(ByteUtil.num2ByteArray(number));
+        }
+    }
+
+}
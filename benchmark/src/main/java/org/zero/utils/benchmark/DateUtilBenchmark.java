@@ -0,0 +1,51 @@
+package org.zero.utils.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.zero.utils.support.DateUtil;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 日期格式化与解析的多线程争用测试（默认8个线程，单线程基准用 -t 1 运行）
+ *
+ * @author : cgl
+ * @version : 1.0
+ * @since : 2026/10/17 15:12
+ **/
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@Threads(8)
+public class DateUtilBenchmark {
+
+    private final Date date = new Date(1473048265000L);
+
+    @Benchmark
+    public String getNeededDateStyle() {
+        return DateUtil.getNeededDateStyle(date, "yyyy-MM-dd HH:mm:ss");
+    }
+
+    @Benchmark
+    public String timeStamp2Date() {
+        return DateUtil.TimeStamp2Date("1473048265", null);
+    }
+
+    @Benchmark
+    public long getDaySub() {
+        return DateUtil.getDaySub("2016-09-05", "2020-04-17");
+    }
+
+}
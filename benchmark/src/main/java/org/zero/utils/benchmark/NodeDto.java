@@ -0,0 +1,85 @@
+package org.zero.utils.benchmark;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * 测试用树结点元素
+ *
+ * @author : cgl
+ * @version : 1.0
+ * @since : 2026/10/17 14:30
+ **/
+public class NodeDto {
+
+    private Long id;
+
+    private Long parentId;
+
+    private Integer level;
+
+    private String name;
+
+    public NodeDto(Long id, Long parentId, Integer level, String name) {
+        this.id = id;
+        this.parentId = parentId;
+        this.level = level;
+        this.name = name;
+    }
+
+    /**
+     * 生成一棵随机树的元素列表
+     *
+     * @param size:    结点数量
+     * @param fanOut:  每个结点的最大子结点数量
+     * @param ordered: 是否保持父结点在子结点之前的顺序（否则打乱顺序）
+     * @return java.util.List:
+     **/
+    public static List<NodeDto> randomTree(int size, int fanOut, boolean ordered) {
+        return randomTree(size, fanOut, ordered, 0);
+    }
+
+    /**
+     * 生成一棵随机树的元素列表
+     *
+     * @param size:    结点数量
+     * @param fanOut:  每个结点的最大子结点数量
+     * @param ordered: 是否保持父结点在子结点之前的顺序（否则打乱顺序）
+     * @param firstId: 起始主键（多棵树的主键互不重复时使用）
+     * @return java.util.List:
+     **/
+    public static List<NodeDto> randomTree(int size, int fanOut, boolean ordered, long firstId) {
+        Random random = new Random(size);
+        List<NodeDto> list = new ArrayList<>(size);
+        int[] levels = new int[size];
+        for (int i = 0; i < size; i++) {
+            // 父结点编号总小于子结点编号
+            int parent = i == 0 ? -1 : Math.max(0, (i - 1) / fanOut - random.nextInt(2));
+            levels[i] = parent < 0 ? 0 : levels[parent] + 1;
+            list.add(new NodeDto(firstId + i, parent < 0 ? null : firstId + parent, levels[i], "node-" + (firstId + i)));
+        }
+        if (!ordered) {
+            Collections.shuffle(list, random);
+        }
+        return list;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getParentId() {
+        return parentId;
+    }
+
+    public Integer getLevel() {
+        return level;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+}
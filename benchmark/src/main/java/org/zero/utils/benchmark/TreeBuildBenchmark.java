@@ -0,0 +1,82 @@
+package org.zero.utils.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.zero.utils.tree.Tree;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 顺序构建树：已按层级排好序的列表直接构建，与乱序列表由build按层级排序（needSort）后构建的对比
+ * <p>
+ * needSort会在原列表上排序，因此乱序的测试每次先复制列表，copyOnly为复制本身的开销，比较时应减去
+ *
+ * @author : cgl
+ * @version : 1.0
+ * @since : 2026/10/17 15:12
+ **/
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class TreeBuildBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    private int size;
+
+    /**
+     * 按层级排好序的列表
+     **/
+    private List<NodeDto> sorted;
+
+    /**
+     * 乱序列表
+     **/
+    private List<NodeDto> shuffled;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        sorted = NodeDto.randomTree(size, 8, true);
+        shuffled = NodeDto.randomTree(size, 8, false);
+    }
+
+    @Benchmark
+    public Tree buildSorted() {
+        return Tree.build(sorted, "node", null, NodeDto::getId, NodeDto::getParentId, false, NodeDto::getLevel);
+    }
+
+    @Benchmark
+    public Tree buildSortedByField() throws Exception {
+        return Tree.build(sorted, "node", null, "Id", "ParentId", false, "Level");
+    }
+
+    @Benchmark
+    public Tree buildNeedSort() {
+        return Tree.build(new ArrayList<>(shuffled), "node", null, NodeDto::getId, NodeDto::getParentId, true, NodeDto::getLevel);
+    }
+
+    @Benchmark
+    public Tree buildUnordered() {
+        return Tree.buildUnordered(shuffled, "node", null, NodeDto::getId, NodeDto::getParentId, NodeDto::getLevel);
+    }
+
+    @Benchmark
+    public List<NodeDto> copyOnly() {
+        return new ArrayList<>(shuffled);
+    }
+
+}
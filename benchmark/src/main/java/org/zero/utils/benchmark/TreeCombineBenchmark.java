@@ -0,0 +1,97 @@
+package org.zero.utils.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.zero.utils.tree.NodeIndex;
+import org.zero.utils.tree.Tree;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 拼接大量子树：每棵子树挂到父树的一个叶子结点下
+ * <p>
+ * 拼接会修改父树（子树的结点挂到父树上），每组父树与子树只能拼接一次：每轮迭代前（不计入耗时）准备BATCH组，
+ * 每轮迭代恰好调用BATCH次、每次取用一组（SingleShotTime），避免逐次调用前重建多达百万个结点；得分为一轮BATCH次拼接的总耗时
+ *
+ * @author : cgl
+ * @version : 1.0
+ * @since : 2026/10/17 15:12
+ **/
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, batchSize = TreeCombineBenchmark.BATCH)
+@Measurement(iterations = 10, batchSize = TreeCombineBenchmark.BATCH)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class TreeCombineBenchmark {
+
+    /**
+     * 每轮迭代准备的父树与子树组数（即每轮迭代的调用次数）
+     **/
+    static final int BATCH = 4;
+
+    @Param({"100", "10000"})
+    private int subTreeCount;
+
+    @Param({"10", "100"})
+    private int subTreeSize;
+
+    private Tree[] trees;
+
+    private List<List<Tree>> subTrees;
+
+    private int next;
+
+    @Setup(Level.Iteration)
+    public void setup() {
+        trees = new Tree[BATCH];
+        subTrees = new ArrayList<>(BATCH);
+        for (int k = 0; k < BATCH; k++) {
+            trees[k] = Tree.build(NodeDto.randomTree(subTreeCount, 8, true), "node", null, NodeDto::getId, NodeDto::getParentId, false, NodeDto::getLevel);
+            List<Tree> list = new ArrayList<>(subTreeCount);
+            for (int i = 0; i < subTreeCount; i++) {
+                // 子树的根节点标识为父树中挂接结点的标识
+                list.add(Tree.build(NodeDto.randomTree(subTreeSize, 4, true, (long) i * subTreeSize), "sub", "node" + i, NodeDto::getId, NodeDto::getParentId, false, NodeDto::getLevel));
+            }
+            subTrees.add(list);
+        }
+        next = 0;
+    }
+
+    @Benchmark
+    public Tree combine() {
+        Tree tree = trees[next];
+        tree.combine(subTrees.get(next++));
+        return tree;
+    }
+
+    @Benchmark
+    public Tree combineParallel() {
+        Tree tree = trees[next];
+        tree.combine(subTrees.get(next++), true);
+        return tree;
+    }
+
+    /**
+     * 拼接后首次按标识查找
+     **/
+    @Benchmark
+    public Object combineThenLookup() {
+        Tree tree = trees[next];
+        tree.combine(subTrees.get(next++));
+        return tree.getIndex().get(NodeIndex.group("sub"), 0L);
+    }
+
+}
@@ -0,0 +1,68 @@
+package org.zero.utils.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.zero.utils.tree.Tree;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 并行构建树的扩展性测试：同一份乱序数据分别用顺序构建、不同并行度的并行构建
+ *
+ * @author : cgl
+ * @version : 1.0
+ * @since : 2026/10/17 14:30
+ **/
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class TreeParallelBuildBenchmark {
+
+    @Param({"100000", "1000000"})
+    private int size;
+
+    @Param({"1", "2", "4", "8", "16", "32"})
+    private int parallelism;
+
+    private List<NodeDto> list;
+
+    private ForkJoinPool pool;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        list = NodeDto.randomTree(size, 8, false);
+        pool = new ForkJoinPool(parallelism);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public Tree buildUnordered() {
+        return Tree.buildUnordered(list, "node", null, NodeDto::getId, NodeDto::getParentId, NodeDto::getLevel);
+    }
+
+    @Benchmark
+    public Tree buildParallel() throws Exception {
+        return pool.submit(() -> Tree.buildParallel(list, "node", null, NodeDto::getId, NodeDto::getParentId, NodeDto::getLevel)).get();
+    }
+
+}
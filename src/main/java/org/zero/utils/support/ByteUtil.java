@@ -2,6 +2,8 @@ package org.zero.utils.support;
 
 import lombok.Getter;
 
+import java.nio.ByteOrder;
+
 /**
  * 字节处理工具
  *
@@ -70,6 +72,33 @@ public class ByteUtil {
         return bytes;
     }
 
+    /**
+     * 字节数组转整数
+     * <p>
+     * 注意：这里的大端模式为高位字节在前（与java.nio.ByteOrder.BIG_ENDIAN一致），而num2ByteArray的大端模式（默认模式）
+     * 为保持原有输出仍是低位字节在前，两者不互逆；需要互转时两边都使用小端模式
+     *
+     * @param bytes: 字节数组（最多8个字节，按有符号数解释）
+     * @param mode:  模式（小端：0  大端：1）
+     * @return long:
+     * @author : cgl
+     * @version : 1.0
+     * @since 2026/10/17 14:55
+     **/
+    public static long byteArray2Long(byte[] bytes, Mode mode) {
+        if (bytes == null || bytes.length == 0 || bytes.length > 8) {
+            return 0;
+        }
+        long value = 0;
+        for (int i = 0; i < bytes.length; i++) {
+            int index = mode == Mode.LITTLE_ENDIAN ? bytes.length - 1 - i : i;
+            value = value << 8 | bytes[index] & 0xFF;
+        }
+        // 按原长度做符号扩展
+        int shift = 64 - bytes.length * 8;
+        return value << shift >> shift;
+    }
+
     /**
      * 数字型转十六进制字符串
      *
@@ -182,6 +211,13 @@ public class ByteUtil {
         Mode(int value) {
             this.value = value;
         }
+
+        /**
+         * 对应的java.nio字节序
+         **/
+        public ByteOrder toByteOrder() {
+            return this == BIG_ENDIAN ? ByteOrder.BIG_ENDIAN : ByteOrder.LITTLE_ENDIAN;
+        }
     }
 
 }
@@ -0,0 +1,291 @@
+package org.zero.utils.tree;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.function.IntConsumer;
+
+/**
+ * 冻结的紧凑树（结构数组形式，不可变）
+ * <p>
+ * 结点按先序遍历顺序编号（根结点为0），拓扑关系存放在父结点、第一个子结点、下一个兄弟结点、深度四个int数组中，元素存放在一个数组中，
+ * 不再为每个结点保留TreeNode和LinkedHashSet，适合长期驻留内存的只读树；先序编号使任一子树在数组中连续，遍历时内存访问基本顺序
+ *
+ * @author : cgl
+ * @version : 1.0
+ * @since : 2026/10/17 14:34
+ **/
+public final class CompactTree {
+
+    /**
+     * 不存在的结点编号
+     **/
+    public final static int NONE = -1;
+
+    private final int[] parents;
+
+    private final int[] firstChildren;
+
+    private final int[] nextSiblings;
+
+    private final int[] depths;
+
+    private final Object[] items;
+
+    private final String rootKey;
+
+    /**
+     * 各结点组的整数主键 -> 结点编号（下标为组序号，按该组的主键数量分配）
+     **/
+    private final LongIntMap[] numberKeys;
+
+    /**
+     * 各结点组的非整数主键 -> 结点编号（下标为组序号，该组没有非整数主键时为null）
+     **/
+    private final Map<Object, Integer>[] otherKeys;
+
+    /**
+     * 不属于任何结点组的标识（如根节点标识） -> 结点编号
+     **/
+    private final Map<String, Integer> namedKeys;
+
+    @SuppressWarnings("unchecked")
+    private CompactTree(int size, String rootKey, int groupCount) {
+        this.parents = new int[size];
+        this.firstChildren = new int[size];
+        this.nextSiblings = new int[size];
+        this.depths = new int[size];
+        this.items = new Object[size];
+        this.rootKey = rootKey;
+        this.numberKeys = new LongIntMap[groupCount];
+        this.otherKeys = (Map<Object, Integer>[]) new Map<?, ?>[groupCount];
+        this.namedKeys = new HashMap<>();
+    }
+
+    /**
+     * 由树冻结生成紧凑树（只包含从根结点可达的结点）
+     *
+     * @param tree: 树
+     * @return org.zero.utils.tree.CompactTree:
+     * @author : cgl
+     * @since 2026/10/17 14:34
+     **/
+    static CompactTree of(Tree tree) {
+        TreeNode<?> root = tree.getRoot();
+        NodeIndex index = tree.getIndex();
+
+        // 先序遍历（显式栈），记录结点编号
+        Map<TreeNode<?>, Integer> numbers = new IdentityHashMap<>(index.size() * 2);
+        TreeNode<?>[] order = new TreeNode<?>[Math.max(16, index.size())];
+        int[] orderParents = new int[order.length];
+        int[] orderDepths = new int[order.length];
+        TreeNode<?>[] stack = new TreeNode<?>[16];
+        int[] stackParents = new int[16];
+        int[] stackDepths = new int[16];
+        int top = 0;
+        int size = 0;
+        stack[top] = root;
+        stackParents[top] = NONE;
+        stackDepths[top++] = 0;
+        while (top > 0) {
+            TreeNode<?> node = stack[--top];
+            if (numbers.containsKey(node)) {
+                // 同一结点被多个父结点引用时只保留第一次
+                continue;
+            }
+            if (size == order.length) {
+                order = Arrays.copyOf(order, size << 1);
+                orderParents = Arrays.copyOf(orderParents, size << 1);
+                orderDepths = Arrays.copyOf(orderDepths, size << 1);
+            }
+            numbers.put(node, size);
+            order[size] = node;
+            orderParents[size] = stackParents[top];
+            orderDepths[size] = stackDepths[top];
+            // 子结点逆序入栈，保证按原顺序出栈
+            TreeNode<?>[] children = node.getChildren().toArray(new TreeNode<?>[0]);
+            if (top + children.length > stack.length) {
+                int capacity = Math.max(stack.length << 1, top + children.length);
+                stack = Arrays.copyOf(stack, capacity);
+                stackParents = Arrays.copyOf(stackParents, capacity);
+                stackDepths = Arrays.copyOf(stackDepths, capacity);
+            }
+            for (int i = children.length - 1; i >= 0; i--) {
+                stack[top] = children[i];
+                stackParents[top] = size;
+                stackDepths[top++] = orderDepths[size] + 1;
+            }
+            size++;
+        }
+
+        // 统计各结点组的整数主键、其它主键数量，按组分配主键表
+        int[] numberCounts = new int[16];
+        int[] otherCounts = new int[16];
+        int groupCount = 0;
+        for (int position = 0; position < index.capacity(); position++) {
+            TreeNode<?> node = index.nodeAt(position);
+            int group = index.groupAt(position);
+            if (node == null || group == NodeIndex.NAMED || !numbers.containsKey(node)) {
+                continue;
+            }
+            if (group >= numberCounts.length) {
+                numberCounts = Arrays.copyOf(numberCounts, Math.max(numberCounts.length << 1, group + 1));
+                otherCounts = Arrays.copyOf(otherCounts, numberCounts.length);
+            }
+            if (NodeIndex.isLong(index.idAt(position))) {
+                numberCounts[group]++;
+            } else {
+                otherCounts[group]++;
+            }
+            groupCount = Math.max(groupCount, group + 1);
+        }
+
+        CompactTree compact = new CompactTree(size, tree.getRootKey(), groupCount);
+        Arrays.fill(compact.firstChildren, NONE);
+        Arrays.fill(compact.nextSiblings, NONE);
+        int[] lastChildren = new int[size];
+        Arrays.fill(lastChildren, NONE);
+        for (int i = 0; i < size; i++) {
+            int parent = orderParents[i];
+            compact.parents[i] = parent;
+            compact.depths[i] = orderDepths[i];
+            compact.items[i] = order[i].getItem();
+            if (parent != NONE) {
+                if (lastChildren[parent] == NONE) {
+                    compact.firstChildren[parent] = i;
+                } else {
+                    compact.nextSiblings[lastChildren[parent]] = i;
+                }
+                lastChildren[parent] = i;
+            }
+        }
+
+        // 结点标识
+        for (int position = 0; position < index.capacity(); position++) {
+            TreeNode<?> node = index.nodeAt(position);
+            Integer number = node == null ? null : numbers.get(node);
+            if (number == null) {
+                continue;
+            }
+            int group = index.groupAt(position);
+            Object id = index.idAt(position);
+            if (group == NodeIndex.NAMED) {
+                compact.namedKeys.put((String) id, number);
+            } else if (NodeIndex.isLong(id)) {
+                if (compact.numberKeys[group] == null) {
+                    compact.numberKeys[group] = new LongIntMap(numberCounts[group]);
+                }
+                compact.numberKeys[group].put(NodeIndex.toLong(id), number);
+            } else {
+                if (compact.otherKeys[group] == null) {
+                    compact.otherKeys[group] = new HashMap<>((int) (otherCounts[group] / 0.75f) + 1);
+                }
+                compact.otherKeys[group].put(id, number);
+            }
+        }
+        return compact;
+    }
+
+    /**
+     * 结点数量
+     **/
+    public int size() {
+        return items.length;
+    }
+
+    /**
+     * 根结点编号
+     **/
+    public int root() {
+        return 0;
+    }
+
+    public String getRootKey() {
+        return rootKey;
+    }
+
+    /**
+     * 父结点编号，根结点返回NONE
+     **/
+    public int parent(int node) {
+        return parents[node];
+    }
+
+    /**
+     * 第一个子结点编号，没有子结点返回NONE
+     **/
+    public int firstChild(int node) {
+        return firstChildren[node];
+    }
+
+    /**
+     * 下一个兄弟结点编号，没有返回NONE
+     **/
+    public int nextSibling(int node) {
+        return nextSiblings[node];
+    }
+
+    /**
+     * 深度（根结点为0）
+     **/
+    public int depth(int node) {
+        return depths[node];
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T item(int node) {
+        return (T) items[node];
+    }
+
+    /**
+     * 依次处理结点的子结点
+     **/
+    public void forEachChild(int node, IntConsumer action) {
+        for (int child = firstChildren[node]; child != NONE; child = nextSiblings[child]) {
+            action.accept(child);
+        }
+    }
+
+    /**
+     * 子树结束位置（不含）：先序编号下，结点node的子树为[node, subtreeEnd(node))
+     **/
+    public int subtreeEnd(int node) {
+        int end = node + 1;
+        while (end < parents.length && depths[end] > depths[node]) {
+            end++;
+        }
+        return end;
+    }
+
+    /**
+     * 按结点组、主键查找结点编号
+     *
+     * @param nodeGroup: 结点组名
+     * @param id:        主键
+     * @return int: 结点编号，不存在时返回NONE
+     **/
+    public int find(String nodeGroup, Object id) {
+        // 未登记的结点组不会有结点，查找时不登记
+        int group = NodeIndex.registeredGroup(nodeGroup);
+        if (group == NodeIndex.NAMED || group >= numberKeys.length) {
+            return NONE;
+        }
+        if (NodeIndex.isLong(id)) {
+            LongIntMap keys = numberKeys[group];
+            return keys == null ? NONE : keys.get(NodeIndex.toLong(id));
+        }
+        Map<Object, Integer> keys = otherKeys[group];
+        Integer number = keys == null ? null : keys.get(id);
+        return number == null ? NONE : number;
+    }
+
+    /**
+     * 按不属于任何结点组的标识（如根节点标识）查找结点编号
+     **/
+    public int find(String key) {
+        Integer number = namedKeys.get(key);
+        return number == null ? NONE : number;
+    }
+
+}
@@ -0,0 +1,531 @@
+package org.zero.utils.tree;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * 读多写少的并发树（版本化写时复制快照）
+ * <p>
+ * 读线程通过snapshot()取得当前快照并遍历，不加锁、不阻塞，快照创建后不再变化；
+ * 写线程通过update()批量修改，修改时只复制被修改的结点及其到根结点路径上的祖先结点，其余子树与旧快照共享
+ * （批内的副本只记录子结点的变更，提交时才为每个被修改的结点生成一次新的子结点集合），
+ * 快照的结点索引为持久化哈希前缀树（HashTrie），新版本只复制变更标识所在的路径、其余与旧快照共享，修改完成后原子地发布新版本
+ *
+ * @author : cgl
+ * @version : 1.0
+ * @since : 2026/10/17 14:38
+ **/
+public class ConcurrentTree {
+
+    private final static AtomicLong SYNTHETIC_IDS = new AtomicLong();
+
+    private final AtomicReference<Snapshot> current;
+
+    /**
+     * 以已构建好的树作为初始版本（版本号为0），之后不应再直接修改该树
+     *
+     * @param tree: 树
+     **/
+    public ConcurrentTree(Tree tree) {
+        this.current = new AtomicReference<>(Snapshot.of(tree));
+    }
+
+    /**
+     * 取得当前快照（不加锁）
+     **/
+    public Snapshot snapshot() {
+        return current.get();
+    }
+
+    /**
+     * 当前版本号（每次update后加1，可用于缓存校验）
+     **/
+    public long version() {
+        return current.get().version;
+    }
+
+    /**
+     * 批量修改并发布新版本（写线程之间串行）
+     *
+     * @param changes: 修改操作（批内操作任一失败时，不发布新版本）
+     * @return org.zero.utils.tree.ConcurrentTree.Snapshot: 新快照
+     * @author : cgl
+     * @since 2026/10/17 14:38
+     **/
+    public synchronized Snapshot update(Consumer<Batch> changes) {
+        Batch batch = new Batch(current.get());
+        changes.accept(batch);
+        Snapshot next = batch.commit();
+        current.set(next);
+        return next;
+    }
+
+    /**
+     * 不可变快照
+     **/
+    public static final class Snapshot {
+
+        private final long version;
+
+        private final SnapshotNode<?> root;
+
+        private final String rootKey;
+
+        private final HashTrie<NodeKey, SnapshotNode<?>> index;
+
+        private Snapshot(long version, SnapshotNode<?> root, String rootKey, HashTrie<NodeKey, SnapshotNode<?>> index) {
+            this.version = version;
+            this.root = root;
+            this.rootKey = rootKey;
+            this.index = index;
+        }
+
+        private static Snapshot of(Tree tree) {
+            NodeIndex treeIndex = tree.getIndex();
+            HashMap<NodeKey, SnapshotNode<?>> entries = new HashMap<>(treeIndex.size() * 2);
+            NodeKey rootKey = new NodeKey(NodeIndex.NAMED, tree.getRootKey());
+
+            // 先序遍历复制结点（显式栈），子结点集合在子结点复制完后再填充
+            Map<TreeNode<?>, SnapshotNode<?>> copies = new IdentityHashMap<>(treeIndex.size() * 2);
+            Deque<TreeNode<?>> stack = new ArrayDeque<>();
+            stack.push(tree.getRoot());
+            copies.put(tree.getRoot(), new SnapshotNode<>(rootKey, null, tree.getRoot().getItem()));
+            List<TreeNode<?>> order = new ArrayList<>();
+            while (!stack.isEmpty()) {
+                TreeNode<?> node = stack.pop();
+                order.add(node);
+                NodeKey parentKey = copies.get(node).key;
+                for (TreeNode<?> child : node.getChildren()) {
+                    if (!copies.containsKey(child)) {
+                        copies.put(child, new SnapshotNode<>(keyOf(treeIndex, child), parentKey, child.getItem()));
+                        stack.push(child);
+                    }
+                }
+            }
+            for (TreeNode<?> node : order) {
+                SnapshotNode<?> copy = copies.get(node);
+                Set<TreeNode<?>> children = new LinkedHashSet<>(node.getChildren().size() * 2);
+                for (TreeNode<?> child : node.getChildren()) {
+                    children.add(copies.get(child));
+                }
+                copy.seal(children);
+                entries.put(copy.key, copy);
+            }
+            return new Snapshot(0, copies.get(tree.getRoot()), tree.getRootKey(), HashTrie.<NodeKey, SnapshotNode<?>>empty().putAll(entries));
+        }
+
+        private static NodeKey keyOf(NodeIndex index, TreeNode<?> node) {
+            int position = index.position(node);
+            if (position < 0) {
+                // 不在索引中的结点，只能遍历到，不能按标识修改
+                return new NodeKey(NodeIndex.NAMED, "#" + SYNTHETIC_IDS.incrementAndGet());
+            }
+            return new NodeKey(index.groupAt(position), index.idAt(position));
+        }
+
+        public long getVersion() {
+            return version;
+        }
+
+        /**
+         * 根结点（快照内的结点及其子结点集合均不可修改）
+         **/
+        public TreeNode<?> getRoot() {
+            return root;
+        }
+
+        public String getRootKey() {
+            return rootKey;
+        }
+
+        /**
+         * 按结点组、主键查找结点（未登记的结点组不会有结点，查找时不登记）
+         **/
+        public TreeNode<?> get(String nodeGroup, Object id) {
+            int group = NodeIndex.registeredGroup(nodeGroup);
+            return group == NodeIndex.NAMED ? null : index.get(new NodeKey(group, id));
+        }
+
+        /**
+         * 取得结点在本快照中的父结点（快照结点之间共享，不能使用TreeNode.getParent()）
+         **/
+        public TreeNode<?> getParent(TreeNode<?> node) {
+            if (!(node instanceof SnapshotNode) || ((SnapshotNode<?>) node).parentKey == null) {
+                return null;
+            }
+            return index.get(((SnapshotNode<?>) node).parentKey);
+        }
+
+        public int size() {
+            return index.size();
+        }
+    }
+
+    /**
+     * 一批修改操作（只在update的回调内有效）
+     **/
+    public static final class Batch {
+
+        private final Snapshot base;
+
+        /**
+         * 本批内复制出的可写结点，以及被删除的标识（值为null）
+         **/
+        private final HashMap<NodeKey, Draft> drafts = new HashMap<>();
+
+        private final NodeKey rootKey;
+
+        private Batch(Snapshot base) {
+            this.base = base;
+            this.rootKey = base.root.key;
+        }
+
+        /**
+         * 增加结点
+         *
+         * @param nodeGroup:       结点组名
+         * @param id:              结点主键
+         * @param item:            元素
+         * @param parentNodeGroup: 父结点组名（为空时与nodeGroup相同）
+         * @param parentId:        父结点主键（为null时挂到根结点）
+         * @return org.zero.utils.tree.ConcurrentTree.Batch:
+         **/
+        public Batch add(String nodeGroup, Object id, Object item, String parentNodeGroup, Object parentId) {
+            NodeKey key = new NodeKey(NodeIndex.group(nodeGroup), id);
+            if (lookup(key) != null) {
+                throw new IllegalArgumentException("结点已存在：" + nodeGroup + id);
+            }
+            Draft parent = draft(parentKey(nodeGroup, parentNodeGroup, parentId));
+            Draft draft = new Draft(key, parent.key, item, Collections.emptySet());
+            drafts.put(key, draft);
+            parent.add(draft);
+            return this;
+        }
+
+        /**
+         * 删除结点及其子树
+         **/
+        public Batch remove(String nodeGroup, Object id) {
+            NodeKey key = new NodeKey(NodeIndex.group(nodeGroup), id);
+            Object node = lookup(key);
+            if (node == null || key.equals(rootKey)) {
+                return this;
+            }
+            draft(parentKeyOf(node)).remove(key);
+            // 子树内的标识全部删除
+            Deque<Object> stack = new ArrayDeque<>();
+            stack.push(node);
+            while (!stack.isEmpty()) {
+                Object current = stack.pop();
+                drafts.put(keyOf(current), null);
+                for (Object child : childrenOf(current)) {
+                    stack.push(child);
+                }
+            }
+            return this;
+        }
+
+        /**
+         * 将结点（连同其子树）移动到新的父结点下，作为最后一个子结点
+         **/
+        public Batch move(String nodeGroup, Object id, String parentNodeGroup, Object parentId) {
+            NodeKey key = new NodeKey(NodeIndex.group(nodeGroup), id);
+            if (lookup(key) == null || key.equals(rootKey)) {
+                throw new IllegalArgumentException("结点不存在：" + nodeGroup + id);
+            }
+            NodeKey newParentKey = parentKey(nodeGroup, parentNodeGroup, parentId);
+            for (NodeKey ancestor = newParentKey; ancestor != null; ancestor = parentKeyOf(lookup(ancestor))) {
+                if (ancestor.equals(key)) {
+                    throw new IllegalArgumentException("不能将结点移动到其子树内：" + nodeGroup + id);
+                }
+            }
+            Draft draft = draft(key);
+            draft(draft.parentKey).remove(key);
+            Draft newParent = draft(newParentKey);
+            newParent.add(draft);
+            draft.parentKey = newParent.key;
+            return this;
+        }
+
+        /**
+         * 替换结点的元素
+         **/
+        public Batch update(String nodeGroup, Object id, Object item) {
+            NodeKey key = new NodeKey(NodeIndex.group(nodeGroup), id);
+            if (lookup(key) == null) {
+                throw new IllegalArgumentException("结点不存在：" + nodeGroup + id);
+            }
+            draft(key).item = item;
+            return this;
+        }
+
+        private NodeKey parentKey(String nodeGroup, String parentNodeGroup, Object parentId) {
+            if (parentId == null) {
+                return rootKey;
+            }
+            if (parentNodeGroup == null || "".equals(parentNodeGroup)) {
+                parentNodeGroup = nodeGroup;
+            }
+            NodeKey key = new NodeKey(NodeIndex.group(parentNodeGroup), parentId);
+            if (lookup(key) == null) {
+                throw new IllegalArgumentException("父结点不存在：" + parentNodeGroup + parentId);
+            }
+            return key;
+        }
+
+        /**
+         * 本批内标识对应的结点（Draft或SnapshotNode），已删除或不存在时返回null
+         **/
+        private Object lookup(NodeKey key) {
+            if (drafts.containsKey(key)) {
+                return drafts.get(key);
+            }
+            return base.index.get(key);
+        }
+
+        /**
+         * 取得结点的可写副本，并沿父结点向上复制到根结点或已复制的祖先（路径复制，副本共享原结点的子结点集合）
+         **/
+        private Draft draft(NodeKey key) {
+            Draft draft = drafts.get(key);
+            if (draft != null) {
+                return draft;
+            }
+            SnapshotNode<?> node = drafts.containsKey(key) ? null : base.index.get(key);
+            if (node == null) {
+                throw new IllegalArgumentException("结点不存在：" + key);
+            }
+            Draft result = new Draft(node.key, node.parentKey, node.getItem(), node.getChildren());
+            drafts.put(key, result);
+            for (Draft child = result; child.parentKey != null; ) {
+                Draft parent = drafts.get(child.parentKey);
+                if (parent != null) {
+                    parent.replace(child);
+                    break;
+                }
+                SnapshotNode<?> parentNode = base.index.get(child.parentKey);
+                parent = new Draft(parentNode.key, parentNode.parentKey, parentNode.getItem(), parentNode.getChildren());
+                drafts.put(parent.key, parent);
+                parent.replace(child);
+                child = parent;
+            }
+            return result;
+        }
+
+        private Snapshot commit() {
+            if (drafts.isEmpty()) {
+                return base;
+            }
+            // 后序把可写副本转换为快照结点，未修改的子结点直接共享
+            HashMap<NodeKey, SnapshotNode<?>> entries = new HashMap<>(drafts.size() * 2);
+            Map<Draft, SnapshotNode<?>> sealed = new IdentityHashMap<>();
+            Deque<Draft> stack = new ArrayDeque<>();
+            Draft rootDraft = drafts.get(rootKey);
+            stack.push(rootDraft);
+            while (!stack.isEmpty()) {
+                Draft draft = stack.peek();
+                boolean ready = true;
+                for (Draft child : draft.draftChildren()) {
+                    if (!sealed.containsKey(child)) {
+                        stack.push(child);
+                        ready = false;
+                    }
+                }
+                if (ready) {
+                    stack.pop();
+                    SnapshotNode<Object> node = new SnapshotNode<>(draft.key, draft.parentKey, draft.item);
+                    List<Object> draftChildren = draft.children();
+                    Set<TreeNode<?>> children = new LinkedHashSet<>(draftChildren.size() * 2);
+                    for (Object child : draftChildren) {
+                        children.add(child instanceof Draft ? sealed.get(child) : (TreeNode<?>) child);
+                    }
+                    node.seal(children);
+                    sealed.put(draft, node);
+                    entries.put(draft.key, node);
+                }
+            }
+            drafts.forEach((key, draft) -> {
+                if (draft == null) {
+                    entries.put(key, null);
+                }
+            });
+            return new Snapshot(base.version + 1, sealed.get(rootDraft), base.rootKey, base.index.putAll(entries));
+        }
+
+        private static NodeKey keyOf(Object node) {
+            return node instanceof Draft ? ((Draft) node).key : ((SnapshotNode<?>) node).key;
+        }
+
+        private static NodeKey parentKeyOf(Object node) {
+            return node instanceof Draft ? ((Draft) node).parentKey : ((SnapshotNode<?>) node).parentKey;
+        }
+
+        private static Iterable<?> childrenOf(Object node) {
+            return node instanceof Draft ? ((Draft) node).children() : ((SnapshotNode<?>) node).getChildren();
+        }
+    }
+
+    /**
+     * 结点标识（结点组序号 + 规范化后的主键）
+     **/
+    private static final class NodeKey {
+
+        private final int group;
+
+        private final Object id;
+
+        private NodeKey(int group, Object id) {
+            this.group = group;
+            this.id = NodeIndex.normalize(id);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof NodeKey)) {
+                return false;
+            }
+            NodeKey other = (NodeKey) o;
+            return group == other.group && Objects.equals(id, other.id);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * group + Objects.hashCode(id);
+        }
+
+        @Override
+        public String toString() {
+            return group == NodeIndex.NAMED ? String.valueOf(id) : NodeIndex.groupName(group) + id;
+        }
+    }
+
+    /**
+     * 快照结点：元素与子结点集合不可修改，记录自身及父结点标识
+     **/
+    private static final class SnapshotNode<T> extends TreeNode<T> {
+
+        private final NodeKey key;
+
+        private final NodeKey parentKey;
+
+        private SnapshotNode(NodeKey key, NodeKey parentKey, T item) {
+            this.key = key;
+            this.parentKey = parentKey;
+            super.setItem(item);
+        }
+
+        private void seal(Set<TreeNode<?>> children) {
+            this.children = Collections.unmodifiableSet(children);
+        }
+
+        @Override
+        public void setItem(T item) {
+            throw new UnsupportedOperationException("快照结点不可修改");
+        }
+
+        @Override
+        public void setChildren(Set<TreeNode<?>> children) {
+            throw new UnsupportedOperationException("快照结点不可修改");
+        }
+    }
+
+    /**
+     * 批内的可写结点副本：共享原结点的子结点集合，只记录批内替换、删除、追加的子结点，
+     * 子结点顺序为原子结点（替换后）在前、追加的在后
+     **/
+    private static final class Draft {
+
+        private final NodeKey key;
+
+        private NodeKey parentKey;
+
+        private Object item;
+
+        /**
+         * 原结点的子结点集合（共享，不修改）
+         **/
+        private final Set<TreeNode<?>> shared;
+
+        /**
+         * 原子结点的标识 -> 替换的副本（值为null表示已移出）
+         **/
+        private final HashMap<NodeKey, Draft> replaced = new HashMap<>();
+
+        /**
+         * 批内追加的子结点（按追加顺序）
+         **/
+        private final LinkedHashMap<NodeKey, Draft> appended = new LinkedHashMap<>();
+
+        private Draft(NodeKey key, NodeKey parentKey, Object item, Set<TreeNode<?>> shared) {
+            this.key = key;
+            this.parentKey = parentKey;
+            this.item = item;
+            this.shared = shared;
+        }
+
+        /**
+         * 用副本替换原子结点（原位置不变）
+         **/
+        private void replace(Draft child) {
+            replaced.put(child.key, child);
+        }
+
+        private void add(Draft child) {
+            appended.put(child.key, child);
+        }
+
+        private void remove(NodeKey child) {
+            if (appended.remove(child) == null) {
+                replaced.put(child, null);
+            }
+        }
+
+        /**
+         * 批内复制出的子结点
+         **/
+        private List<Draft> draftChildren() {
+            List<Draft> children = new ArrayList<>(replaced.size() + appended.size());
+            for (Draft child : replaced.values()) {
+                if (child != null) {
+                    children.add(child);
+                }
+            }
+            children.addAll(appended.values());
+            return children;
+        }
+
+        /**
+         * 当前的子结点（Draft或共享的SnapshotNode）
+         **/
+        private List<Object> children() {
+            List<Object> children = new ArrayList<>(shared.size() + appended.size());
+            for (TreeNode<?> child : shared) {
+                NodeKey childKey = ((SnapshotNode<?>) child).key;
+                if (!replaced.containsKey(childKey)) {
+                    children.add(child);
+                } else if (replaced.get(childKey) != null) {
+                    children.add(replaced.get(childKey));
+                }
+            }
+            children.addAll(appended.values());
+            return children;
+        }
+    }
+
+}
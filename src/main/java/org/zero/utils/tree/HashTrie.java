@@ -0,0 +1,320 @@
+package org.zero.utils.tree;
+
+import java.util.Map;
+
+/**
+ * 持久化哈希前缀树（HAMT）：不可变，修改时只复制从根到被修改键所在结点的路径（每层32路，深度不超过7），其余结点与旧版本共享
+ * <p>
+ * 一次putAll内新建的结点就地修改（不再逐键复制路径），结果发布后不再变化，可被多线程并发读取
+ *
+ * @author : cgl
+ * @version : 1.0
+ * @since : 2026/10/17 17:22
+ **/
+final class HashTrie<K, V> {
+
+    private final static HashTrie<?, ?> EMPTY = new HashTrie<>(null, 0);
+
+    private final Node root;
+
+    private final int size;
+
+    private HashTrie(Node root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <K, V> HashTrie<K, V> empty() {
+        return (HashTrie<K, V>) EMPTY;
+    }
+
+    int size() {
+        return size;
+    }
+
+    @SuppressWarnings("unchecked")
+    V get(K key) {
+        int hash = hash(key);
+        Node node = root;
+        int shift = 0;
+        while (node != null) {
+            if (node instanceof Collision) {
+                Collision collision = (Collision) node;
+                int index = collision.hash == hash ? collision.indexOf(key) : -1;
+                return index < 0 ? null : (V) collision.array[index + 1];
+            }
+            Bitmap bitmap = (Bitmap) node;
+            int bit = 1 << (hash >>> shift & 31);
+            if ((bitmap.bitmap & bit) == 0) {
+                return null;
+            }
+            int index = bitmap.index(bit);
+            Object k = bitmap.array[index];
+            if (k == null) {
+                node = (Node) bitmap.array[index + 1];
+                shift += 5;
+            } else {
+                return key.equals(k) ? (V) bitmap.array[index + 1] : null;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 批量修改，返回新版本（本版本不变）
+     *
+     * @param changes: 键 -> 新值（值为null表示删除该键）
+     * @return org.zero.utils.tree.HashTrie:
+     **/
+    HashTrie<K, V> putAll(Map<K, V> changes) {
+        if (changes.isEmpty()) {
+            return this;
+        }
+        Object edit = new Object();
+        int[] count = {size};
+        Node node = root;
+        for (Map.Entry<K, V> entry : changes.entrySet()) {
+            K key = entry.getKey();
+            if (entry.getValue() == null) {
+                node = node == null ? null : remove(node, 0, hash(key), key, edit, count);
+            } else {
+                if (node == null) {
+                    node = new Bitmap(edit, 0, new Object[0]);
+                }
+                node = put(node, 0, hash(key), key, entry.getValue(), edit, count);
+            }
+        }
+        return new HashTrie<>(node, count[0]);
+    }
+
+    private static int hash(Object key) {
+        int h = key.hashCode();
+        return h ^ h >>> 16;
+    }
+
+    private static Node put(Node node, int shift, int hash, Object key, Object value, Object edit, int[] count) {
+        if (node instanceof Collision) {
+            Collision collision = (Collision) node;
+            if (collision.hash != hash) {
+                // 哈希不同：在本层包一层位图结点后再放入
+                Bitmap wrapper = new Bitmap(edit, 1 << (collision.hash >>> shift & 31), new Object[]{null, collision});
+                return put(wrapper, shift, hash, key, value, edit, count);
+            }
+            int index = collision.indexOf(key);
+            if (index >= 0) {
+                if (collision.array[index + 1] == value) {
+                    return collision;
+                }
+                Collision editable = collision.editable(edit);
+                editable.array[index + 1] = value;
+                return editable;
+            }
+            Collision editable = collision.editable(edit);
+            editable.array = insert(collision.array, collision.array.length, key, value);
+            count[0]++;
+            return editable;
+        }
+
+        Bitmap bitmap = (Bitmap) node;
+        int bit = 1 << (hash >>> shift & 31);
+        int index = bitmap.index(bit);
+        if ((bitmap.bitmap & bit) == 0) {
+            Bitmap editable = bitmap.editable(edit);
+            editable.array = insert(bitmap.array, index, key, value);
+            editable.bitmap |= bit;
+            count[0]++;
+            return editable;
+        }
+        Object k = bitmap.array[index];
+        Object v = bitmap.array[index + 1];
+        Object replacement;
+        if (k == null) {
+            Node child = put((Node) v, shift + 5, hash, key, value, edit, count);
+            if (child == v) {
+                return bitmap;
+            }
+            replacement = child;
+        } else if (key.equals(k)) {
+            if (v == value) {
+                return bitmap;
+            }
+            Bitmap editable = bitmap.editable(edit);
+            editable.array[index + 1] = value;
+            return editable;
+        } else {
+            replacement = pair(shift + 5, k, v, hash(k), key, value, hash, edit);
+            count[0]++;
+        }
+        Bitmap editable = bitmap.editable(edit);
+        editable.array[index] = null;
+        editable.array[index + 1] = replacement;
+        return editable;
+    }
+
+    /**
+     * 删除键，结点为空时返回null
+     **/
+    private static Node remove(Node node, int shift, int hash, Object key, Object edit, int[] count) {
+        if (node instanceof Collision) {
+            Collision collision = (Collision) node;
+            int index = collision.hash == hash ? collision.indexOf(key) : -1;
+            if (index < 0) {
+                return collision;
+            }
+            count[0]--;
+            if (collision.array.length == 2) {
+                return null;
+            }
+            Collision editable = collision.editable(edit);
+            editable.array = delete(collision.array, index);
+            return editable;
+        }
+
+        Bitmap bitmap = (Bitmap) node;
+        int bit = 1 << (hash >>> shift & 31);
+        if ((bitmap.bitmap & bit) == 0) {
+            return bitmap;
+        }
+        int index = bitmap.index(bit);
+        Object k = bitmap.array[index];
+        Object v = bitmap.array[index + 1];
+        if (k == null) {
+            Node child = remove((Node) v, shift + 5, hash, key, edit, count);
+            if (child == v) {
+                return bitmap;
+            }
+            Bitmap editable;
+            if (child == null) {
+                if (bitmap.array.length == 2) {
+                    return null;
+                }
+                editable = bitmap.editable(edit);
+                editable.array = delete(bitmap.array, index);
+                editable.bitmap ^= bit;
+            } else if (child.isSingle()) {
+                // 只剩一个键的子结点收回到本层
+                editable = bitmap.editable(edit);
+                editable.array[index] = child.array[0];
+                editable.array[index + 1] = child.array[1];
+            } else {
+                editable = bitmap.editable(edit);
+                editable.array[index + 1] = child;
+            }
+            return editable;
+        }
+        if (!key.equals(k)) {
+            return bitmap;
+        }
+        count[0]--;
+        if (bitmap.array.length == 2) {
+            return null;
+        }
+        Bitmap editable = bitmap.editable(edit);
+        editable.array = delete(bitmap.array, index);
+        editable.bitmap ^= bit;
+        return editable;
+    }
+
+    /**
+     * 容纳两个键的子结点（从shift层开始区分）
+     **/
+    private static Node pair(int shift, Object k1, Object v1, int h1, Object k2, Object v2, int h2, Object edit) {
+        if (h1 == h2) {
+            return new Collision(edit, h1, new Object[]{k1, v1, k2, v2});
+        }
+        int i1 = h1 >>> shift & 31;
+        int i2 = h2 >>> shift & 31;
+        if (i1 == i2) {
+            return new Bitmap(edit, 1 << i1, new Object[]{null, pair(shift + 5, k1, v1, h1, k2, v2, h2, edit)});
+        }
+        Object[] array = i1 < i2 ? new Object[]{k1, v1, k2, v2} : new Object[]{k2, v2, k1, v1};
+        return new Bitmap(edit, 1 << i1 | 1 << i2, array);
+    }
+
+    private static Object[] insert(Object[] array, int index, Object key, Object value) {
+        Object[] result = new Object[array.length + 2];
+        System.arraycopy(array, 0, result, 0, index);
+        result[index] = key;
+        result[index + 1] = value;
+        System.arraycopy(array, index, result, index + 2, array.length - index);
+        return result;
+    }
+
+    private static Object[] delete(Object[] array, int index) {
+        Object[] result = new Object[array.length - 2];
+        System.arraycopy(array, 0, result, 0, index);
+        System.arraycopy(array, index + 2, result, index, array.length - index - 2);
+        return result;
+    }
+
+    /**
+     * 结点：array中成对存放键值，位图结点中键为null时值为子结点
+     **/
+    private abstract static class Node {
+
+        /**
+         * 创建该结点的批次，同一批次内可就地修改
+         **/
+        final Object edit;
+
+        Object[] array;
+
+        Node(Object edit, Object[] array) {
+            this.edit = edit;
+            this.array = array;
+        }
+
+        /**
+         * 是否只含一个键值（没有子结点）
+         **/
+        boolean isSingle() {
+            return array.length == 2 && array[0] != null;
+        }
+    }
+
+    private static final class Bitmap extends Node {
+
+        int bitmap;
+
+        Bitmap(Object edit, int bitmap, Object[] array) {
+            super(edit, array);
+            this.bitmap = bitmap;
+        }
+
+        int index(int bit) {
+            return Integer.bitCount(bitmap & bit - 1) << 1;
+        }
+
+        Bitmap editable(Object edit) {
+            return this.edit == edit ? this : new Bitmap(edit, bitmap, array.clone());
+        }
+    }
+
+    /**
+     * 哈希值完全相同的键
+     **/
+    private static final class Collision extends Node {
+
+        final int hash;
+
+        Collision(Object edit, int hash, Object[] array) {
+            super(edit, array);
+            this.hash = hash;
+        }
+
+        int indexOf(Object key) {
+            for (int i = 0; i < array.length; i += 2) {
+                if (key.equals(array[i])) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        Collision editable(Object edit) {
+            return this.edit == edit ? this : new Collision(edit, hash, array.clone());
+        }
+    }
+
+}
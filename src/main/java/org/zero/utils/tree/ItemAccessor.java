@@ -0,0 +1,191 @@
+package org.zero.utils.tree;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * 元素属性访问器
+ * <p>
+ * 按（元素类型, 字段名）解析一次getXxx方法并缓存编译后的调用器（元素类型对本类的类加载器可见时使用LambdaMetafactory生成的Function，否则或生成失败时使用MethodHandle），
+ * 避免在构建树、排序时对每个元素都执行getMethod + invoke的反射调用
+ *
+ * @author : cgl
+ * @version : 1.0
+ * @since : 2026/10/17 14:28
+ **/
+public final class ItemAccessor implements Function<Object, Object> {
+
+    /**
+     * 已编译的getter缓存：元素类型 -> (字段名 -> 调用器)
+     * <p>
+     * 缓存挂在元素类型上（ClassValue），不会因静态缓存强引用元素类型而使其类加载器无法卸载（如Web容器中重新部署应用）
+     **/
+    private final static ClassValue<Map<String, Function<Object, Object>>> CACHE = new ClassValue<Map<String, Function<Object, Object>>>() {
+        @Override
+        protected Map<String, Function<Object, Object>> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
+    /**
+     * 字段名（首字母大写）
+     **/
+    private final String field;
+
+    /**
+     * 最近一次访问的元素类型及其调用器（列表元素通常为同一类型，命中时只需一次引用比较）
+     **/
+    private volatile Resolved last;
+
+    private ItemAccessor(String field, Resolved last) {
+        this.field = field;
+        this.last = last;
+    }
+
+    /**
+     * 创建属性访问器，并预先解析指定类型的getter
+     *
+     * @param type:  元素类型
+     * @param field: 字段名（首字母大写，以便调用元素的getField方法）
+     * @return org.zero.utils.tree.ItemAccessor:
+     * @throws NoSuchMethodException: 元素类型不存在对应的get方法
+     * @author : cgl
+     * @since 2026/10/17 14:28
+     **/
+    public static ItemAccessor of(Class<?> type, String field) throws NoSuchMethodException {
+        return new ItemAccessor(field, new Resolved(type, getter(type, field)));
+    }
+
+    /**
+     * 取得指定类型、字段的getter调用器（每个（类型, 字段）只解析、编译一次）
+     *
+     * @param type:  元素类型
+     * @param field: 字段名（首字母大写，以便调用元素的getField方法）
+     * @return java.util.function.Function:
+     * @throws NoSuchMethodException: 元素类型不存在对应的get方法
+     * @author : cgl
+     * @since 2026/10/17 14:28
+     **/
+    public static Function<Object, Object> getter(Class<?> type, String field) throws NoSuchMethodException {
+        Map<String, Function<Object, Object>> getters = CACHE.get(type);
+        Function<Object, Object> getter = getters.get(field);
+        if (getter == null) {
+            getter = compile(type.getMethod("get" + field));
+            Function<Object, Object> exists = getters.putIfAbsent(field, getter);
+            if (exists != null) {
+                getter = exists;
+            }
+        }
+        return getter;
+    }
+
+    @Override
+    public Object apply(Object item) {
+        Resolved resolved = this.last;
+        if (resolved.type != item.getClass()) {
+            // 列表中混有其它类型的元素时，按元素的实际类型重新取调用器
+            try {
+                resolved = new Resolved(item.getClass(), getter(item.getClass(), field));
+            } catch (NoSuchMethodException e) {
+                throw new IllegalArgumentException(item.getClass().getName() + "不存在get" + field + "方法", e);
+            }
+            this.last = resolved;
+        }
+        return resolved.getter.apply(item);
+    }
+
+    /**
+     * 将get方法编译为Function调用器
+     **/
+    @SuppressWarnings("unchecked")
+    private static Function<Object, Object> compile(Method method) {
+        MethodHandle handle;
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            try {
+                handle = lookup.unreflect(method);
+            } catch (IllegalAccessException e) {
+                // 非public类中的public方法，需要放开访问检查
+                method.setAccessible(true);
+                handle = lookup.unreflect(method);
+            }
+        } catch (Exception e) {
+            return (item) -> {
+                try {
+                    return method.invoke(item);
+                } catch (Exception ex) {
+                    throw new IllegalStateException(ex);
+                }
+            };
+        }
+
+        // 优先生成与手写lambda等价的Function，便于JIT内联；生成的类按本类的类加载器解析元素类型，
+        // 元素类型（或返回类型）对本类的类加载器不可见时（如Web容器、devtools的子类加载器加载的类），调用时才会抛出NoClassDefFoundError，只能使用MethodHandle
+        Class<?> returnType = method.getReturnType().isPrimitive()
+                ? MethodType.methodType(method.getReturnType()).wrap().returnType()
+                : method.getReturnType();
+        if (visible(method.getDeclaringClass()) && visible(returnType)) {
+            try {
+                MethodHandles.Lookup lookup = MethodHandles.lookup();
+                CallSite site = LambdaMetafactory.metafactory(lookup, "apply",
+                        MethodType.methodType(Function.class),
+                        MethodType.methodType(Object.class, Object.class),
+                        handle,
+                        MethodType.methodType(returnType, method.getDeclaringClass()));
+                return (Function<Object, Object>) site.getTarget().invokeExact();
+            } catch (Throwable e) {
+                // 生成失败时退化为MethodHandle调用
+            }
+        }
+        MethodHandle generic = handle.asType(MethodType.methodType(Object.class, Object.class));
+        return (item) -> {
+            try {
+                return generic.invokeExact(item);
+            } catch (RuntimeException | Error ex) {
+                throw ex;
+            } catch (Throwable ex) {
+                throw new IllegalStateException(ex);
+            }
+        };
+    }
+
+    /**
+     * 类型对本类的类加载器是否可见（按类名解析到的是同一个类）
+     **/
+    private static boolean visible(Class<?> type) {
+        while (type.isArray()) {
+            type = type.getComponentType();
+        }
+        if (type.isPrimitive()) {
+            return true;
+        }
+        try {
+            return Class.forName(type.getName(), false, ItemAccessor.class.getClassLoader()) == type;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+
+    /**
+     * 已解析的（类型, 调用器）
+     **/
+    private static final class Resolved {
+
+        private final Class<?> type;
+
+        private final Function<Object, Object> getter;
+
+        private Resolved(Class<?> type, Function<Object, Object> getter) {
+            this.type = type;
+            this.getter = getter;
+        }
+    }
+
+}
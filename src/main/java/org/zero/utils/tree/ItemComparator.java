@@ -1,55 +1,229 @@
 package org.zero.utils.tree;
 
-import lombok.AllArgsConstructor;
-
+import java.util.Arrays;
 import java.util.Comparator;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
 
 /**
  * 树节点元素比较器（排序字段暂时只支持Integer、Long、String类型，后续如需要可扩展其它类型字段的比较方法）
+ * <p>
+ * 比较器每次比较都要对两个元素取值，排序整个列表时应使用静态的sort、sortByLong方法：每个元素只取一次排序字段的值，
+ * 整数字段放入long数组后按计数/基数排序（层级等取值范围小的字段只需一趟计数排序），其它字段按预先取出的值排序；均为稳定排序
  *
  * @author : cgl
  * @version : 1.0
  * @since : 2019/11/28 17:19
  **/
-@AllArgsConstructor
 public class ItemComparator<T> implements Comparator<T> {
 
+    /**
+     * 基数排序每趟的位数
+     **/
+    private final static int RADIX_BITS = 8;
+
     /**
      * 排序字段
      **/
     private String sortField;
 
+    /**
+     * 排序字段取值函数（按字段名构造时，首次比较时才解析get方法）
+     **/
+    private Function<? super T, ?> sortKey;
+
+    public ItemComparator(String sortField) {
+        this.sortField = sortField;
+    }
+
+    /**
+     * 注：与ItemComparator(String)重载，传入null时须写明类型，如 new ItemComparator<>((String) null)
+     *
+     * @param sortKey: 排序字段取值函数（不经过反射）
+     **/
+    public ItemComparator(Function<? super T, ?> sortKey) {
+        this.sortKey = sortKey;
+    }
+
     @Override
     public int compare(T o1, T o2) {
         try {
-            Object obj1 = o1.getClass().getMethod("get" + sortField).invoke(o1);
-            Object obj2 = o2.getClass().getMethod("get" + sortField).invoke(o2);
-            if (obj1 instanceof Integer) {
-                Integer val1 = (Integer) obj1;
-                Integer val2 = (Integer) obj2;
-                if (val1 < val2) {
-                    return -1;
-                } else if (val1 > val2) {
-                    return 1;
-                }
-                return 0;
-            } else if (obj1 instanceof Long) {
-                Long val1 = (Long) obj1;
-                Long val2 = (Long) obj2;
-                if (val1 < val2) {
-                    return -1;
-                } else if (val1 > val2) {
-                    return 1;
-                }
-                return 0;
-            } else if (obj1 instanceof String) {
-                String val1 = obj1.toString();
-                String val2 = obj2.toString();
-                return val1.compareTo(val2);
+            if (sortKey == null) {
+                sortKey = ItemAccessor.of(o1.getClass(), sortField);
             }
-            return 0;
+            return compareKeys(sortKey.apply(o1), sortKey.apply(o2));
         } catch (Exception e) {
             return 0;
         }
     }
+
+    /**
+     * 按排序字段的值稳定排序（每个元素只取一次值）
+     * <p>
+     * 值均为Integer、Long、Short、Byte时按计数/基数排序，时间复杂度O(n)；否则按预先取出的值比较排序，比较规则与compare相同
+     *
+     * @param list:    列表（排序后的结果写回列表）
+     * @param sortKey: 排序字段取值函数
+     * @author : cgl
+     * @since 2026/10/17 14:59
+     **/
+    public static <T> void sort(List<T> list, Function<? super T, ?> sortKey) {
+        if (list == null || list.size() < 2) {
+            return;
+        }
+        Object[] items = list.toArray();
+        Object[] keys = new Object[items.length];
+        long[] longKeys = new long[items.length];
+        boolean integral = true;
+        for (int i = 0; i < items.length; i++) {
+            @SuppressWarnings("unchecked")
+            Object key = sortKey.apply((T) items[i]);
+            keys[i] = key;
+            if (integral && (key instanceof Integer || key instanceof Long || key instanceof Short || key instanceof Byte)) {
+                longKeys[i] = ((Number) key).longValue();
+            } else {
+                integral = false;
+            }
+        }
+        writeBack(list, integral ? radixSort(items, longKeys) : keyedSort(items, keys));
+    }
+
+    /**
+     * 按long型排序字段稳定排序（每个元素只取一次值，不装箱，计数/基数排序）
+     *
+     * @param list:    列表（排序后的结果写回列表）
+     * @param sortKey: 排序字段取值函数
+     * @author : cgl
+     * @since 2026/10/17 14:59
+     **/
+    public static <T> void sortByLong(List<T> list, ToLongFunction<? super T> sortKey) {
+        if (list == null || list.size() < 2) {
+            return;
+        }
+        Object[] items = list.toArray();
+        long[] keys = new long[items.length];
+        for (int i = 0; i < items.length; i++) {
+            @SuppressWarnings("unchecked")
+            T item = (T) items[i];
+            keys[i] = sortKey.applyAsLong(item);
+        }
+        writeBack(list, radixSort(items, keys));
+    }
+
+    /**
+     * 比较两个排序字段的值（类型不一致或不支持的类型视为相等）
+     **/
+    static int compareKeys(Object obj1, Object obj2) {
+        if (obj1 instanceof Integer && obj2 instanceof Integer) {
+            return Integer.compare((Integer) obj1, (Integer) obj2);
+        } else if (obj1 instanceof Long && obj2 instanceof Long) {
+            return Long.compare((Long) obj1, (Long) obj2);
+        } else if (obj1 instanceof String && obj2 != null) {
+            return obj1.toString().compareTo(obj2.toString());
+        }
+        return 0;
+    }
+
+    /**
+     * LSD基数排序：按(key - min)的无符号值每趟排RADIX_BITS位，取值范围不超过元素数量（或256）时一趟计数排序
+     *
+     * @return java.lang.Object[]: 排好序的元素
+     **/
+    static Object[] radixSort(Object[] items, long[] keys) {
+        int n = items.length;
+        long min = keys[0];
+        long max = keys[0];
+        for (int i = 1; i < n; i++) {
+            if (keys[i] < min) {
+                min = keys[i];
+            } else if (keys[i] > max) {
+                max = keys[i];
+            }
+        }
+        // 差值按无符号数处理，跨越整个long范围时也不会溢出
+        int bits = 64 - Long.numberOfLeadingZeros(max - min);
+        if (bits == 0) {
+            return items;
+        }
+        int width = bits < 31 && 1 << bits <= Math.max(n, 1 << RADIX_BITS) ? bits : RADIX_BITS;
+        int mask = (1 << width) - 1;
+        int[] counts = new int[1 << width];
+
+        long[] digits = new long[n];
+        for (int i = 0; i < n; i++) {
+            digits[i] = keys[i] - min;
+        }
+        Object[] sourceItems = items;
+        long[] sourceDigits = digits;
+        Object[] targetItems = new Object[n];
+        long[] targetDigits = new long[n];
+        for (int shift = 0; shift < bits; shift += width) {
+            Arrays.fill(counts, 0);
+            for (int i = 0; i < n; i++) {
+                counts[(int) (sourceDigits[i] >>> shift) & mask]++;
+            }
+            int offset = 0;
+            for (int d = 0; d < counts.length; d++) {
+                int count = counts[d];
+                counts[d] = offset;
+                offset += count;
+            }
+            for (int i = 0; i < n; i++) {
+                int position = counts[(int) (sourceDigits[i] >>> shift) & mask]++;
+                targetItems[position] = sourceItems[i];
+                targetDigits[position] = sourceDigits[i];
+            }
+            Object[] swapItems = sourceItems;
+            sourceItems = targetItems;
+            targetItems = swapItems;
+            long[] swapDigits = sourceDigits;
+            sourceDigits = targetDigits;
+            targetDigits = swapDigits;
+        }
+        return sourceItems;
+    }
+
+    /**
+     * 按预先取出的值稳定排序（归并排序，比较时不再调用取值函数）
+     *
+     * @return java.lang.Object[]: 排好序的元素
+     **/
+    static Object[] keyedSort(Object[] items, Object[] keys) {
+        Keyed[] keyed = new Keyed[items.length];
+        for (int i = 0; i < items.length; i++) {
+            keyed[i] = new Keyed(keys[i], items[i]);
+        }
+        Arrays.sort(keyed, (k1, k2) -> compareKeys(k1.key, k2.key));
+        Object[] sorted = new Object[items.length];
+        for (int i = 0; i < keyed.length; i++) {
+            sorted[i] = keyed[i].item;
+        }
+        return sorted;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> void writeBack(List<T> list, Object[] sorted) {
+        ListIterator<T> iterator = list.listIterator();
+        for (Object item : sorted) {
+            iterator.next();
+            iterator.set((T) item);
+        }
+    }
+
+    /**
+     * 元素及其预先取出的排序字段值
+     **/
+    private static final class Keyed {
+
+        private final Object key;
+
+        private final Object item;
+
+        private Keyed(Object key, Object item) {
+            this.key = key;
+            this.item = item;
+        }
+    }
 }
@@ -0,0 +1,76 @@
+package org.zero.utils.tree;
+
+import com.alibaba.fastjson.JSON;
+
+import java.lang.reflect.Type;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 结点元素序列化器
+ * <p>
+ * 将结点元素（不为null）与字节互相转换，用于树的二进制存储；反序列化时传入的缓冲区剩余部分恰为一个元素的字节，
+ * 可能是内存映射文件的只读视图，实现不应修改其内容
+ *
+ * @author : cgl
+ * @version : 1.0
+ * @since : 2026/10/17 14:54
+ **/
+public interface ItemSerializer<T> {
+
+    /**
+     * 元素转字节
+     *
+     * @param item: 元素（不为null）
+     * @return byte[]:
+     **/
+    byte[] serialize(T item);
+
+    /**
+     * 字节转元素
+     *
+     * @param buffer: 元素字节（position到limit之间）
+     * @return T:
+     **/
+    T deserialize(ByteBuffer buffer);
+
+    /**
+     * 字符串元素（UTF-8）
+     **/
+    static ItemSerializer<String> utf8() {
+        return new ItemSerializer<String>() {
+            @Override
+            public byte[] serialize(String item) {
+                return item.getBytes(StandardCharsets.UTF_8);
+            }
+
+            @Override
+            public String deserialize(ByteBuffer buffer) {
+                return StandardCharsets.UTF_8.decode(buffer).toString();
+            }
+        };
+    }
+
+    /**
+     * 以JSON（fastjson）存储的元素
+     *
+     * @param type: 元素类型
+     * @return org.zero.utils.tree.ItemSerializer:
+     **/
+    static <T> ItemSerializer<T> json(Type type) {
+        return new ItemSerializer<T>() {
+            @Override
+            public byte[] serialize(T item) {
+                return JSON.toJSONBytes(item);
+            }
+
+            @Override
+            public T deserialize(ByteBuffer buffer) {
+                byte[] bytes = new byte[buffer.remaining()];
+                buffer.get(bytes);
+                return JSON.parseObject(bytes, type);
+            }
+        };
+    }
+
+}
@@ -0,0 +1,354 @@
+package org.zero.utils.tree;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+/**
+ * 按需加载子结点的树（适合结点过多、无法整体构建，而使用时只展开少数分支的层级，如 区域→门店→货架→商品）
+ * <p>
+ * 上层结点照常用Tree.build、combine构建好后交给LazyTree；没有子结点的结点在首次通过children、expand访问时调用加载器取得子元素，
+ * 同时展开的多个结点（如一组兄弟结点）合并为一次加载。懒加载的结点按最近访问顺序缓存，总数超过上限时整体卸载最久未访问的分支
+ * （卸载后再次访问会重新加载），构建时已有子结点的结点不会被卸载。
+ * <p>
+ * 懒加载的结点与上层结点一样登记在Tree的索引中（结点组为nodeGroup），但只应通过LazyTree访问其子结点、不应再通过Tree直接增删；
+ * 加载器在锁外调用，锁内只做挂载与卸载：同一结点同时只加载一次，正在加载时其它线程要展开的结点排队，本次加载结束后合并为下一次加载；
+ * 加载器内不能再调用本对象的方法，其它线程直接遍历Tree时可能遇到正在加载或卸载的分支
+ *
+ * @author : cgl
+ * @version : 1.0
+ * @since : 2026/10/17 15:15
+ **/
+public class LazyTree<T> {
+
+    private final Tree tree;
+
+    private final String nodeGroup;
+
+    private final Function<? super T, ?> idGetter;
+
+    private final ChildLoader<T> loader;
+
+    private final int maxLoadedNodes;
+
+    /**
+     * 已加载的结点 -> 加载的子结点数量（按访问顺序，最久未访问的在前）
+     **/
+    private final LinkedHashMap<TreeNode<?>, Integer> loaded = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * 排队或正在加载的结点 -> 加载结束的通知
+     **/
+    private final Map<TreeNode<?>, CompletableFuture<Void>> inflight = new IdentityHashMap<>();
+
+    /**
+     * 排队等待下一次加载的结点
+     **/
+    private List<TreeNode<?>> queued = new ArrayList<>();
+
+    /**
+     * 是否有线程正在依次加载排队的结点
+     **/
+    private boolean loading;
+
+    private int loadedNodeCount;
+
+    private long loadCount;
+
+    private long evictionCount;
+
+    /**
+     * @param tree:           已构建好的上层结点（之后不应再直接增删懒加载部分的结点）
+     * @param nodeGroup:      懒加载结点的结点组名（懒加载结点的主键在组内不能重复）
+     * @param idGetter:       懒加载元素的主键获取方法
+     * @param loader:         子元素加载器
+     * @param maxLoadedNodes: 最多缓存的懒加载结点数量（超过时卸载最久未访问的分支）
+     **/
+    public LazyTree(Tree tree, String nodeGroup, Function<? super T, ?> idGetter, ChildLoader<T> loader, int maxLoadedNodes) {
+        this.tree = tree;
+        this.nodeGroup = nodeGroup;
+        this.idGetter = idGetter;
+        this.loader = loader;
+        this.maxLoadedNodes = maxLoadedNodes;
+    }
+
+    /**
+     * 子元素加载器
+     **/
+    @FunctionalInterface
+    public interface ChildLoader<T> {
+
+        /**
+         * 批量加载子元素
+         *
+         * @param parents: 待展开的结点（至少一个，不重复）
+         * @return java.util.Map: 父结点 -> 子元素列表（按子结点顺序），不包含的父结点视为没有子结点
+         * @throws Exception: 加载失败（此时不展开任何结点）
+         **/
+        Map<TreeNode<?>, List<T>> load(List<TreeNode<?>> parents) throws Exception;
+    }
+
+    public Tree getTree() {
+        return tree;
+    }
+
+    /**
+     * 取得结点的子结点，未加载时先加载
+     *
+     * @param node: 结点（须在树上）
+     * @return java.util.List: 子结点（副本）
+     * @throws Exception: 加载器抛出的异常
+     * @author : cgl
+     * @since 2026/10/17 15:15
+     **/
+    public List<TreeNode<?>> children(TreeNode<?> node) throws Exception {
+        expand(Collections.singletonList(node));
+        synchronized (this) {
+            return new ArrayList<>(node.getChildren());
+        }
+    }
+
+    /**
+     * 展开多个结点，其中未加载的结点合并为一次加载（如展开某结点的全部子结点：expand(parent.getChildren())）；
+     * 已有线程在加载时，未加载的结点排队并入下一次加载，本方法等到所需结点都加载结束后返回
+     *
+     * @param nodes: 结点（须在树上）
+     * @throws Exception: 加载器抛出的异常（同一次加载的所有结点都会失败）
+     * @throws IllegalArgumentException: 结点不在树上，或加载的子元素主键已存在
+     * @author : cgl
+     * @since 2026/10/17 15:15
+     **/
+    public void expand(Collection<? extends TreeNode<?>> nodes) throws Exception {
+        List<CompletableFuture<Void>> waits = new ArrayList<>();
+        boolean leader;
+        synchronized (this) {
+            Set<TreeNode<?>> accessed = Collections.newSetFromMap(new IdentityHashMap<>());
+            for (TreeNode<?> node : nodes) {
+                if (node != tree.getRoot() && !tree.getIndex().contains(node)) {
+                    throw new IllegalArgumentException("结点不在树上：" + node.getItem());
+                }
+                if (!accessed.add(node)) {
+                    continue;
+                }
+                CompletableFuture<Void> wait = inflight.get(node);
+                if (wait == null && loaded.get(node) == null && node.getChildren().isEmpty()) {
+                    wait = new CompletableFuture<>();
+                    inflight.put(node, wait);
+                    queued.add(node);
+                }
+                if (wait != null) {
+                    waits.add(wait);
+                }
+                touchAncestors(node, accessed);
+            }
+            if (waits.isEmpty()) {
+                return;
+            }
+            // 没有线程在加载时由本线程加载，否则交给正在加载的线程在本次加载结束后处理
+            leader = !loading && !queued.isEmpty();
+            if (leader) {
+                loading = true;
+            }
+        }
+        if (leader) {
+            drain();
+        }
+        for (CompletableFuture<Void> wait : waits) {
+            try {
+                wait.join();
+            } catch (CompletionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof Exception) {
+                    throw (Exception) cause;
+                }
+                if (cause instanceof Error) {
+                    throw (Error) cause;
+                }
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * 结点的子结点是否已加载（构建时已有子结点的结点视为已加载）
+     **/
+    public synchronized boolean isLoaded(TreeNode<?> node) {
+        return loaded.containsKey(node) || !node.getChildren().isEmpty();
+    }
+
+    /**
+     * 卸载结点懒加载的子结点（连同其子树），之后再次访问时重新加载；构建时已有的子结点不会被卸载
+     *
+     * @param node: 结点
+     * @return boolean: 是否卸载了
+     * @author : cgl
+     * @since 2026/10/17 15:15
+     **/
+    public synchronized boolean collapse(TreeNode<?> node) {
+        if (!loaded.containsKey(node)) {
+            return false;
+        }
+        unload(node);
+        return true;
+    }
+
+    /**
+     * 当前缓存的懒加载结点数量
+     **/
+    public synchronized int loadedNodeCount() {
+        return loadedNodeCount;
+    }
+
+    /**
+     * 调用加载器的次数
+     **/
+    public synchronized long loadCount() {
+        return loadCount;
+    }
+
+    /**
+     * 因超过上限而卸载的分支数量
+     **/
+    public synchronized long evictionCount() {
+        return evictionCount;
+    }
+
+    /**
+     * 依次加载排队的结点（锁外调用加载器），直到队列为空
+     **/
+    private void drain() {
+        while (true) {
+            List<TreeNode<?>> batch;
+            synchronized (this) {
+                if (queued.isEmpty()) {
+                    loading = false;
+                    return;
+                }
+                batch = queued;
+                queued = new ArrayList<>();
+                loadCount++;
+            }
+            Map<TreeNode<?>, List<T>> children = null;
+            Throwable failure = null;
+            try {
+                children = loader.load(Collections.unmodifiableList(batch));
+            } catch (Throwable e) {
+                failure = e;
+            }
+            synchronized (this) {
+                if (failure == null) {
+                    try {
+                        attach(batch, children == null ? Collections.emptyMap() : children);
+                    } catch (RuntimeException e) {
+                        failure = e;
+                    }
+                }
+                for (TreeNode<?> node : batch) {
+                    CompletableFuture<Void> wait = inflight.remove(node);
+                    if (failure == null) {
+                        wait.complete(null);
+                    } else {
+                        wait.completeExceptionally(failure);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * 挂载一次加载的子结点（在锁内调用），加载期间已被卸载的结点不再挂载
+     **/
+    private void attach(List<TreeNode<?>> batch, Map<TreeNode<?>, List<T>> children) {
+        List<TreeNode<?>> parents = new ArrayList<>(batch.size());
+        for (TreeNode<?> parent : batch) {
+            if (parent == tree.getRoot() || tree.getIndex().contains(parent)) {
+                parents.add(parent);
+            }
+        }
+        // 先检查主键，避免加载到一半失败
+        int group = NodeIndex.group(nodeGroup);
+        Set<Object> ids = new HashSet<>();
+        for (TreeNode<?> parent : parents) {
+            for (T item : children.getOrDefault(parent, Collections.emptyList())) {
+                Object id = idGetter.apply(item);
+                if (!ids.add(NodeIndex.normalize(id)) || tree.getIndex().get(group, id) != null) {
+                    throw new IllegalArgumentException("结点已存在：" + nodeGroup + id);
+                }
+            }
+        }
+        // 本次加载的结点及其祖先不参与卸载
+        Set<TreeNode<?>> accessed = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (TreeNode<?> parent : parents) {
+            List<T> items = children.getOrDefault(parent, Collections.emptyList());
+            for (T item : items) {
+                tree.addChild(parent, nodeGroup, idGetter.apply(item), item);
+            }
+            loaded.put(parent, items.size());
+            loadedNodeCount += items.size();
+            accessed.add(parent);
+            touchAncestors(parent, accessed);
+        }
+        evict(accessed);
+    }
+
+    /**
+     * 按访问顺序更新结点的祖先，并记入accessed
+     **/
+    private void touchAncestors(TreeNode<?> node, Set<TreeNode<?>> accessed) {
+        for (TreeNode<?> ancestor = node.getParent(); ancestor != null && accessed.add(ancestor); ancestor = ancestor.getParent()) {
+            loaded.get(ancestor);
+        }
+    }
+
+    /**
+     * 卸载最久未访问的分支，直到懒加载结点数量不超过上限
+     **/
+    private void evict(Set<TreeNode<?>> accessed) {
+        while (loadedNodeCount > maxLoadedNodes) {
+            TreeNode<?> victim = null;
+            // 卸载会连带删除子树中已加载的结点，因此每次重新从最久未访问处查找
+            for (Iterator<TreeNode<?>> iterator = loaded.keySet().iterator(); iterator.hasNext() && victim == null; ) {
+                TreeNode<?> node = iterator.next();
+                if (!accessed.contains(node)) {
+                    victim = node;
+                }
+            }
+            if (victim == null) {
+                return;
+            }
+            unload(victim);
+            evictionCount++;
+        }
+    }
+
+    private void unload(TreeNode<?> node) {
+        loadedNodeCount -= loaded.remove(node);
+        for (TreeNode<?> child : new ArrayList<>(node.getChildren())) {
+            // 显式栈遍历子树，去掉其中已加载的结点
+            Deque<TreeNode<?>> stack = new ArrayDeque<>();
+            stack.push(child);
+            while (!stack.isEmpty()) {
+                TreeNode<?> current = stack.pop();
+                Integer count = loaded.remove(current);
+                if (count != null) {
+                    loadedNodeCount -= count;
+                }
+                current.getChildren().forEach(stack::push);
+            }
+            tree.removeSubtree(child);
+        }
+    }
+
+}
@@ -0,0 +1,277 @@
+package org.zero.utils.tree;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * long -> int 开放寻址哈希表（线性探测），键值均为基本类型，插入、查找不产生任何对象
+ * <p>
+ * 非线程安全；构建完成后只读时可被多线程并发查找
+ *
+ * @author : cgl
+ * @version : 1.0
+ * @since : 2026/10/17 14:33
+ **/
+class LongIntMap {
+
+    /**
+     * 查找不到时的返回值
+     **/
+    final static int MISSING = -1;
+
+    private final static float LOAD_FACTOR = 0.6f;
+
+    private long[] keys;
+
+    /**
+     * 值（MISSING表示该槽位为空）
+     **/
+    private int[] values;
+
+    private int size;
+
+    private int mask;
+
+    private int resizeAt;
+
+    LongIntMap(int expectedSize) {
+        allocate(capacityFor(expectedSize));
+    }
+
+    /**
+     * 预留容量，写入expectedSize个键之前不再扩容
+     **/
+    void ensureCapacity(int expectedSize) {
+        int capacity = capacityFor(expectedSize);
+        if (capacity > values.length) {
+            rehash(capacity);
+        }
+    }
+
+    int get(long key) {
+        int slot = slot(key);
+        while (values[slot] != MISSING) {
+            if (keys[slot] == key) {
+                return values[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return MISSING;
+    }
+
+    /**
+     * 不存在时写入
+     *
+     * @return int: 已存在的值，不存在时返回MISSING
+     **/
+    int putIfAbsent(long key, int value) {
+        int slot = slot(key);
+        while (values[slot] != MISSING) {
+            if (keys[slot] == key) {
+                return values[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        insert(slot, key, value);
+        return MISSING;
+    }
+
+    /**
+     * 写入（覆盖）
+     *
+     * @return int: 原值，不存在时返回MISSING
+     **/
+    int put(long key, int value) {
+        int slot = slot(key);
+        while (values[slot] != MISSING) {
+            if (keys[slot] == key) {
+                int old = values[slot];
+                values[slot] = value;
+                return old;
+            }
+            slot = (slot + 1) & mask;
+        }
+        insert(slot, key, value);
+        return MISSING;
+    }
+
+    /**
+     * 删除，并将后续探测链上的元素前移（不使用删除标记）
+     *
+     * @return int: 原值，不存在时返回MISSING
+     **/
+    int remove(long key) {
+        int slot = slot(key);
+        while (values[slot] != MISSING) {
+            if (keys[slot] == key) {
+                int old = values[slot];
+                shiftDown(slot);
+                size--;
+                return old;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return MISSING;
+    }
+
+    /**
+     * 并行批量写入：键不存在时以其下标为值写入，同一键以下标较小的为准，inserted[i]标记keys[i]是否写入
+     * <p>
+     * 先按总数预留容量，再按槽位把表分成若干连续的段，每段由一个任务按下标顺序写入，只读写本段的槽位；
+     * 探测链越过段尾的键（装载因子下很少）留到最后顺序写入
+     *
+     * @param keys:     键
+     * @param inserted: 各键是否写入（长度不小于keys）
+     **/
+    void putIndexesParallel(long[] keys, boolean[] inserted) {
+        int count = keys.length;
+        ensureCapacity(size + count);
+        int capacityBits = Integer.numberOfTrailingZeros(values.length);
+        int segmentBits = Math.max(0, Math.min(capacityBits - 8, 32 - Integer.numberOfLeadingZeros(Runtime.getRuntime().availableProcessors() * 8 - 1)));
+        int segments = 1 << segmentBits;
+        int shift = capacityBits - segmentBits;
+
+        // 按理想槽位所在的段计数排序（段内保持下标顺序）
+        int[] homes = new int[count];
+        IntStream.range(0, count).parallel().forEach((i) -> homes[i] = slot(keys[i]));
+        int[] starts = new int[segments + 1];
+        for (int home : homes) {
+            starts[(home >>> shift) + 1]++;
+        }
+        for (int segment = 0; segment < segments; segment++) {
+            starts[segment + 1] += starts[segment];
+        }
+        int[] order = new int[count];
+        int[] cursor = Arrays.copyOf(starts, segments);
+        for (int i = 0; i < count; i++) {
+            order[cursor[homes[i] >>> shift]++] = i;
+        }
+
+        int[] added = new int[segments];
+        IntStream.range(0, segments).parallel().forEach((segment) -> {
+            int end = (segment + 1) << shift;
+            int segmentAdded = 0;
+            for (int k = starts[segment]; k < starts[segment + 1]; k++) {
+                int i = order[k];
+                for (int slot = homes[i]; ; slot++) {
+                    if (slot == end) {
+                        // 越过段尾，留到最后
+                        break;
+                    }
+                    if (values[slot] == MISSING) {
+                        this.keys[slot] = keys[i];
+                        values[slot] = i;
+                        inserted[i] = true;
+                        homes[i] = -1;
+                        segmentAdded++;
+                        break;
+                    }
+                    if (this.keys[slot] == keys[i]) {
+                        homes[i] = -1;
+                        break;
+                    }
+                }
+            }
+            added[segment] = segmentAdded;
+        });
+        for (int segmentAdded : added) {
+            size += segmentAdded;
+        }
+        for (int i : order) {
+            if (homes[i] >= 0 && putIfAbsent(keys[i], i) == MISSING) {
+                inserted[i] = true;
+            }
+        }
+    }
+
+    /**
+     * 并行把所有值按mapping替换（值为mapping的下标）
+     **/
+    void remapValues(int[] mapping) {
+        IntStream.range(0, values.length >>> 10 == 0 ? 1 : values.length >>> 10).parallel().forEach((block) -> {
+            int end = Math.min(values.length, (block + 1) << 10);
+            for (int slot = block << 10; slot < end; slot++) {
+                if (values[slot] != MISSING) {
+                    values[slot] = mapping[values[slot]];
+                }
+            }
+        });
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * 遍历所有键值
+     **/
+    void forEach(Visitor visitor) {
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] != MISSING) {
+                visitor.visit(keys[i], values[i]);
+            }
+        }
+    }
+
+    interface Visitor {
+        void visit(long key, int value);
+    }
+
+    private void insert(int slot, long key, int value) {
+        keys[slot] = key;
+        values[slot] = value;
+        if (++size > resizeAt) {
+            rehash(values.length << 1);
+        }
+    }
+
+    private void shiftDown(int slot) {
+        int gap = slot;
+        int next = (gap + 1) & mask;
+        while (values[next] != MISSING) {
+            int ideal = slot(keys[next]);
+            // 探测链上的元素，其理想槽位不在(gap, next]区间内时，可前移到空位
+            if (((next - ideal) & mask) >= ((next - gap) & mask)) {
+                keys[gap] = keys[next];
+                values[gap] = values[next];
+                gap = next;
+            }
+            next = (next + 1) & mask;
+        }
+        values[gap] = MISSING;
+    }
+
+    private int slot(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    private static int capacityFor(int expectedSize) {
+        return Integer.highestOneBit(Math.max(4, (int) (expectedSize / LOAD_FACTOR)) - 1) << 1;
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new int[capacity];
+        Arrays.fill(values, MISSING);
+        mask = capacity - 1;
+        resizeAt = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(capacity);
+        for (int i = 0; i < oldValues.length; i++) {
+            if (oldValues[i] != MISSING) {
+                int slot = slot(oldKeys[i]);
+                while (values[slot] != MISSING) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+}
@@ -0,0 +1,513 @@
+package org.zero.utils.tree;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntConsumer;
+
+/**
+ * 内存映射的持久化树
+ * <p>
+ * 将构建好的树写成紧凑的二进制文件（拓扑数组、结点标识哈希表、元素字节），打开时通过FileChannel.map映射到内存，
+ * 查找、遍历直接读取映射区域，不反序列化到堆中（只有取元素时才反序列化该元素），启动时无需重新构建，同一主机上的多个JVM共享页缓存。
+ * 结点按先序编号（根结点为0），用法与CompactTree相同；文件大小不能超过2GB，映射在对象被回收后才解除
+ * <p>
+ * 文件格式（大端）：64字节文件头 | 结点组名 | 父结点编号 | 深度 | 子树结束位置 | 整数主键哈希表 | 其它标识哈希表 | 标识字符串 | 元素字节 | 元素位置及长度
+ *
+ * @author : cgl
+ * @version : 1.0
+ * @since : 2026/10/17 14:54
+ **/
+public final class MappedTree<T> {
+
+    /**
+     * 不存在的结点编号
+     **/
+    public final static int NONE = -1;
+
+    /**
+     * 文件标识 "TREE"
+     **/
+    private final static int MAGIC = 0x54524545;
+
+    private final static int FORMAT_VERSION = 1;
+
+    private final static int HEADER_SIZE = 64;
+
+    /**
+     * 哈希表每个槽位的字节数
+     **/
+    private final static int SLOT_SIZE = 16;
+
+    private final MappedByteBuffer buffer;
+
+    private final ItemSerializer<T> serializer;
+
+    private final int size;
+
+    private final int numberSlotCount;
+
+    private final int otherSlotCount;
+
+    private final int parentsOffset;
+
+    private final int depthsOffset;
+
+    private final int endsOffset;
+
+    private final int numberSlotsOffset;
+
+    private final int otherSlotsOffset;
+
+    private final int stringsOffset;
+
+    private final int payloadOffset;
+
+    private final int itemsOffset;
+
+    private final String rootKey;
+
+    /**
+     * 结点组名 -> 文件内的组序号
+     **/
+    private final Map<String, Integer> groups;
+
+    private MappedTree(MappedByteBuffer buffer, ItemSerializer<T> serializer) throws IOException {
+        this.buffer = buffer;
+        this.serializer = serializer;
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new IOException("不是树文件");
+        }
+        if (buffer.getInt(4) != FORMAT_VERSION) {
+            throw new IOException("不支持的树文件版本：" + buffer.getInt(4));
+        }
+        this.size = buffer.getInt(8);
+        int groupCount = buffer.getInt(12);
+        this.numberSlotCount = buffer.getInt(16);
+        this.otherSlotCount = buffer.getInt(20);
+        int groupsOffset = buffer.getInt(24);
+        this.parentsOffset = buffer.getInt(28);
+        this.depthsOffset = buffer.getInt(32);
+        this.endsOffset = buffer.getInt(36);
+        this.numberSlotsOffset = buffer.getInt(40);
+        this.otherSlotsOffset = buffer.getInt(44);
+        this.stringsOffset = buffer.getInt(48);
+        this.payloadOffset = buffer.getInt(52);
+        this.itemsOffset = buffer.getInt(56);
+        this.rootKey = string(stringsOffset, buffer.getInt(60));
+
+        this.groups = new HashMap<>(groupCount * 2);
+        int offset = groupsOffset;
+        for (int group = 0; group < groupCount; group++) {
+            int length = buffer.getInt(offset);
+            groups.put(string(offset + 4, length), group);
+            offset += 4 + length;
+        }
+    }
+
+    /**
+     * 将树写入文件（先写临时文件再替换，正在读取旧文件的进程不受影响）
+     *
+     * @param tree:       树（只写入从根结点可达的结点）
+     * @param file:       文件
+     * @param serializer: 元素序列化器
+     * @author : cgl
+     * @since 2026/10/17 14:54
+     **/
+    @SuppressWarnings("unchecked")
+    public static void write(Tree tree, Path file, ItemSerializer<?> serializer) throws IOException {
+        TreeIntervalIndex intervals = tree.intervalIndex();
+        NodeIndex index = tree.getIndex();
+        int size = intervals.size();
+
+        // 结点组重新按文件内序号编号，组名随文件保存
+        Map<Integer, Integer> localGroups = new HashMap<>();
+        List<String> groupNames = new ArrayList<>();
+        List<long[]> numberKeys = new ArrayList<>();
+        List<Object[]> otherKeys = new ArrayList<>();
+        for (int position = 0; position < index.capacity(); position++) {
+            TreeNode<?> node = index.nodeAt(position);
+            int number = node == null ? NONE : intervals.number(node);
+            if (number == NONE) {
+                continue;
+            }
+            int group = index.groupAt(position);
+            Object id = index.idAt(position);
+            int localGroup = NONE;
+            if (group != NodeIndex.NAMED) {
+                Integer existing = localGroups.get(group);
+                if (existing == null) {
+                    existing = groupNames.size();
+                    localGroups.put(group, existing);
+                    groupNames.add(NodeIndex.groupName(group));
+                }
+                localGroup = existing;
+            }
+            if (localGroup != NONE && NodeIndex.isLong(id)) {
+                numberKeys.add(new long[]{localGroup, NodeIndex.toLong(id), number});
+            } else {
+                otherKeys.add(new Object[]{localGroup, String.valueOf(id).getBytes(StandardCharsets.UTF_8), number});
+            }
+        }
+
+        // 标识字符串：根节点标识在最前
+        ByteArrayOutputStream strings = new ByteArrayOutputStream();
+        byte[] rootKeyBytes = tree.getRootKey() == null ? new byte[0] : tree.getRootKey().getBytes(StandardCharsets.UTF_8);
+        strings.write(rootKeyBytes);
+
+        int numberSlotCount = tableSize(numberKeys.size());
+        int[] numberSlots = new int[numberSlotCount * 2];
+        long[] numberSlotKeys = new long[numberSlotCount];
+        Arrays.fill(numberSlots, NONE);
+        for (long[] key : numberKeys) {
+            int slot = numberHash((int) key[0], key[1]) & (numberSlotCount - 1);
+            while (numberSlots[slot * 2 + 1] != NONE) {
+                slot = (slot + 1) & (numberSlotCount - 1);
+            }
+            numberSlots[slot * 2] = (int) key[0];
+            numberSlots[slot * 2 + 1] = (int) key[2];
+            numberSlotKeys[slot] = key[1];
+        }
+        int otherSlotCount = tableSize(otherKeys.size());
+        int[] otherSlots = new int[otherSlotCount * 4];
+        Arrays.fill(otherSlots, NONE);
+        for (Object[] key : otherKeys) {
+            int group = (Integer) key[0];
+            byte[] bytes = (byte[]) key[1];
+            int slot = otherHash(group, bytes) & (otherSlotCount - 1);
+            while (otherSlots[slot * 4 + 1] != NONE) {
+                slot = (slot + 1) & (otherSlotCount - 1);
+            }
+            otherSlots[slot * 4] = group;
+            otherSlots[slot * 4 + 1] = (Integer) key[2];
+            otherSlots[slot * 4 + 2] = strings.size();
+            otherSlots[slot * 4 + 3] = bytes.length;
+            strings.write(bytes);
+        }
+
+        Path temp = Files.createTempFile(file.toAbsolutePath().getParent(), file.getFileName().toString(), ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            // DataOutputStream.size()在超过2GB后停在Integer.MAX_VALUE，位置由CountingOutputStream按long计数
+            CountingOutputStream counter = new CountingOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel), 1 << 16));
+            DataOutputStream out = new DataOutputStream(counter);
+            int[] header = new int[16];
+            header[0] = MAGIC;
+            header[1] = FORMAT_VERSION;
+            header[2] = size;
+            header[3] = groupNames.size();
+            header[4] = numberSlotCount;
+            header[5] = otherSlotCount;
+            header[15] = rootKeyBytes.length;
+            out.write(new byte[HEADER_SIZE]);
+
+            header[6] = counter.offset();
+            for (String name : groupNames) {
+                byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+                out.writeInt(bytes.length);
+                out.write(bytes);
+            }
+            header[7] = counter.offset();
+            for (int number = 0; number < size; number++) {
+                out.writeInt(intervals.parentAt(number));
+            }
+            header[8] = counter.offset();
+            for (int number = 0; number < size; number++) {
+                out.writeInt(intervals.depthAt(number));
+            }
+            header[9] = counter.offset();
+            for (int number = 0; number < size; number++) {
+                out.writeInt(intervals.subtreeEnd(number));
+            }
+            header[10] = counter.offset();
+            for (int slot = 0; slot < numberSlotCount; slot++) {
+                out.writeInt(numberSlots[slot * 2]);
+                out.writeInt(numberSlots[slot * 2 + 1]);
+                out.writeLong(numberSlotKeys[slot]);
+            }
+            header[11] = counter.offset();
+            for (int value : otherSlots) {
+                out.writeInt(value);
+            }
+            header[12] = counter.offset();
+            strings.writeTo(out);
+
+            // 元素字节，记录各元素的位置及长度（null元素长度为-1）
+            header[13] = counter.offset();
+            int[] items = new int[size * 2];
+            ItemSerializer<Object> itemSerializer = (ItemSerializer<Object>) serializer;
+            for (int number = 0; number < size; number++) {
+                Object item = intervals.nodeAt(number).getItem();
+                items[number * 2] = counter.offset() - header[13];
+                if (item == null) {
+                    items[number * 2 + 1] = NONE;
+                } else {
+                    byte[] bytes = itemSerializer.serialize(item);
+                    items[number * 2 + 1] = bytes.length;
+                    out.write(bytes);
+                }
+            }
+            header[14] = counter.offset();
+            for (int value : items) {
+                out.writeInt(value);
+            }
+            counter.offset();
+            out.flush();
+
+            ByteBuffer headerBuffer = ByteBuffer.allocate(HEADER_SIZE);
+            headerBuffer.asIntBuffer().put(header);
+            channel.write(headerBuffer, 0);
+            channel.force(false);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        try {
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * 打开树文件（只读映射，打开后即可关闭文件）
+     *
+     * @param file:       文件
+     * @param serializer: 元素序列化器（须与写入时一致）
+     * @return org.zero.utils.tree.MappedTree:
+     * @throws IOException: 文件不存在、不是树文件或版本不支持
+     * @author : cgl
+     * @since 2026/10/17 14:54
+     **/
+    public static <T> MappedTree<T> open(Path file, ItemSerializer<T> serializer) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("树文件超过2GB");
+            }
+            return new MappedTree<>(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()), serializer);
+        }
+    }
+
+    /**
+     * 结点数量
+     **/
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 根结点编号
+     **/
+    public int root() {
+        return 0;
+    }
+
+    public String getRootKey() {
+        return rootKey;
+    }
+
+    /**
+     * 父结点编号，根结点返回NONE
+     **/
+    public int parent(int node) {
+        return buffer.getInt(parentsOffset + node * 4);
+    }
+
+    /**
+     * 深度（根结点为0）
+     **/
+    public int depth(int node) {
+        return buffer.getInt(depthsOffset + node * 4);
+    }
+
+    /**
+     * 子树结束位置（不含）：结点node的子树为[node, subtreeEnd(node))
+     **/
+    public int subtreeEnd(int node) {
+        return buffer.getInt(endsOffset + node * 4);
+    }
+
+    /**
+     * 第一个子结点编号，没有子结点返回NONE
+     **/
+    public int firstChild(int node) {
+        return subtreeEnd(node) > node + 1 ? node + 1 : NONE;
+    }
+
+    /**
+     * 下一个兄弟结点编号，没有返回NONE
+     **/
+    public int nextSibling(int node) {
+        int parent = parent(node);
+        int end = subtreeEnd(node);
+        return parent != NONE && end < subtreeEnd(parent) ? end : NONE;
+    }
+
+    /**
+     * 依次处理结点的子结点
+     **/
+    public void forEachChild(int node, IntConsumer action) {
+        int end = subtreeEnd(node);
+        for (int child = node + 1; child < end; child = subtreeEnd(child)) {
+            action.accept(child);
+        }
+    }
+
+    /**
+     * 结点元素（每次调用都从映射区域反序列化）
+     **/
+    public T item(int node) {
+        int start = buffer.getInt(itemsOffset + node * 8);
+        int length = buffer.getInt(itemsOffset + node * 8 + 4);
+        if (length == NONE) {
+            return null;
+        }
+        ByteBuffer view = buffer.duplicate();
+        view.position(payloadOffset + start);
+        view.limit(payloadOffset + start + length);
+        return serializer.deserialize(view.slice());
+    }
+
+    /**
+     * 按结点组、主键查找结点编号（非整数主键按String.valueOf比较）
+     *
+     * @param nodeGroup: 结点组名
+     * @param id:        主键
+     * @return int: 结点编号，不存在时返回NONE
+     **/
+    public int find(String nodeGroup, Object id) {
+        Integer group = groups.get(nodeGroup);
+        if (group == null || id == null) {
+            return NONE;
+        }
+        if (NodeIndex.isLong(id)) {
+            long key = NodeIndex.toLong(id);
+            int mask = numberSlotCount - 1;
+            for (int slot = numberHash(group, key) & mask; ; slot = (slot + 1) & mask) {
+                int offset = numberSlotsOffset + slot * SLOT_SIZE;
+                int node = buffer.getInt(offset + 4);
+                if (node == NONE) {
+                    return NONE;
+                }
+                if (buffer.getInt(offset) == group && buffer.getLong(offset + 8) == key) {
+                    return node;
+                }
+            }
+        }
+        return findOther(group, String.valueOf(id));
+    }
+
+    /**
+     * 按不属于任何结点组的标识（如根节点标识）查找结点编号
+     **/
+    public int find(String key) {
+        return key == null ? NONE : findOther(NONE, key);
+    }
+
+    private int findOther(int group, String key) {
+        byte[] bytes = key.getBytes(StandardCharsets.UTF_8);
+        int mask = otherSlotCount - 1;
+        for (int slot = otherHash(group, bytes) & mask; ; slot = (slot + 1) & mask) {
+            int offset = otherSlotsOffset + slot * SLOT_SIZE;
+            int node = buffer.getInt(offset + 4);
+            if (node == NONE) {
+                return NONE;
+            }
+            if (buffer.getInt(offset) == group && buffer.getInt(offset + 12) == bytes.length && bytesEqual(stringsOffset + buffer.getInt(offset + 8), bytes)) {
+                return node;
+            }
+        }
+    }
+
+    /**
+     * 按long计数已写入字节数的输出流
+     **/
+    private static final class CountingOutputStream extends FilterOutputStream {
+
+        private long count;
+
+        private CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+
+        /**
+         * 当前写入位置
+         *
+         * @throws IOException: 位置超过2GB（文件中的位置为int）
+         **/
+        private int offset() throws IOException {
+            if (count > Integer.MAX_VALUE) {
+                throw new IOException("树文件超过2GB");
+            }
+            return (int) count;
+        }
+    }
+
+    private boolean bytesEqual(int offset, byte[] bytes) {
+        for (int i = 0; i < bytes.length; i++) {
+            if (buffer.get(offset + i) != bytes[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private String string(int offset, int length) {
+        byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++) {
+            bytes[i] = buffer.get(offset + i);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 哈希表槽位数：不小于标识数量2倍的2的幂（至少保留一个空槽位，保证查找能结束）
+     **/
+    private static int tableSize(int count) {
+        int capacity = 2;
+        while (capacity < count * 2) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    private static int numberHash(int group, long key) {
+        long h = (key + group) * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private static int otherHash(int group, byte[] bytes) {
+        int h = Arrays.hashCode(bytes) * 31 + group;
+        return h ^ (h >>> 16);
+    }
+
+}
@@ -0,0 +1,822 @@
+package org.zero.utils.tree;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+/**
+ * 结点标识索引
+ * <p>
+ * 结点标识由（结点组序号, 主键）组成，不再拼接nodeGroup + id字符串：结点组名全局驻留为int序号，
+ * 整数主键（Short、Integer、Long及十进制整数字符串）存入long -> int开放寻址表，其它类型的主键按原对象存入HashMap；
+ * 不属于任何结点组的标识（如根节点标识root）按字符串单独存放。
+ * 同时通过asMap()提供以旧字符串标识（nodeGroup + id）访问的Map视图，兼容原有的Tree.getMap()用法
+ *
+ * @author : cgl
+ * @version : 1.0
+ * @since : 2026/10/17 14:33
+ **/
+public class NodeIndex {
+
+    /**
+     * 不属于任何结点组的标识的组序号
+     **/
+    final static int NAMED = -1;
+
+    /**
+     * 结点组主键表的初始大小（按组实际数量扩容，或由reserve按预计数量预留）
+     **/
+    private final static int GROUP_INITIAL_SIZE = 16;
+
+    /**
+     * 全局结点组名 -> 序号
+     **/
+    private final static Map<String, Integer> GROUP_ORDINALS = new ConcurrentHashMap<>();
+
+    /**
+     * 全局序号 -> 结点组名（写时复制）
+     **/
+    private static volatile String[] GROUP_NAMES = new String[0];
+
+    /**
+     * 各结点组的主键表（下标为组序号）
+     **/
+    private GroupTable[] tables = new GroupTable[0];
+
+    /**
+     * 不属于任何结点组的标识 -> 位置
+     **/
+    private final HashMap<String, Integer> named = new HashMap<>();
+
+    /**
+     * 按写入顺序存放的结点及其标识（删除后置空，空位过多时压缩）
+     **/
+    private TreeNode<?>[] nodes;
+    private int[] groups;
+    private long[] numbers;
+    private Object[] others;
+
+    private int count;
+
+    private int size;
+
+    private Map<String, TreeNode<?>> view;
+
+    /**
+     * 写入、删除、替换、压缩等改变位置上结点的次数（包括通过Map视图的修改），用于判断按位置建立的派生索引是否失效
+     **/
+    private int modCount;
+
+    /**
+     * 是否有按旧字符串标识存放的未登记结点组的标识（按组查找不到时再按旧字符串标识查找）
+     **/
+    private boolean unregistered;
+
+    /**
+     * 结点 -> 位置（首次按结点查找时才建立，建好后再发布，多线程只读时各自建立的结果相同；之后随写入、删除维护）
+     **/
+    private volatile IdentityHashMap<TreeNode<?>, Integer> positions;
+
+    public NodeIndex() {
+        this(16);
+    }
+
+    public NodeIndex(int expectedSize) {
+        int capacity = Math.max(16, expectedSize);
+        nodes = new TreeNode<?>[capacity];
+        groups = new int[capacity];
+        numbers = new long[capacity];
+        others = new Object[capacity];
+    }
+
+    /**
+     * 取得结点组序号（同名结点组在整个JVM内序号相同）
+     * <p>
+     * 首次使用的结点组名会永久登记到JVM全局的登记表中（不会移除），只应传入代码中固定的结点组名；
+     * 外部数据中的组名（如反序列化、补丁）查找时应使用registeredGroup，不登记新的结点组
+     *
+     * @param name: 结点组名
+     * @return int:
+     * @author : cgl
+     * @since 2026/10/17 14:33
+     **/
+    public static int group(String name) {
+        Integer ordinal = GROUP_ORDINALS.get(name);
+        if (ordinal == null) {
+            synchronized (GROUP_ORDINALS) {
+                ordinal = GROUP_ORDINALS.get(name);
+                if (ordinal == null) {
+                    String[] names = Arrays.copyOf(GROUP_NAMES, GROUP_NAMES.length + 1);
+                    ordinal = GROUP_NAMES.length;
+                    names[ordinal] = name;
+                    GROUP_NAMES = names;
+                    GROUP_ORDINALS.put(name, ordinal);
+                }
+            }
+        }
+        return ordinal;
+    }
+
+    /**
+     * 取得已登记的结点组序号，不登记新的结点组（用于解码外部数据，避免任意组名永久占用全局登记表）
+     *
+     * @param name: 结点组名
+     * @return int: 结点组序号，尚未登记时返回NAMED
+     **/
+    static int registeredGroup(String name) {
+        Integer ordinal = name == null ? null : GROUP_ORDINALS.get(name);
+        return ordinal == null ? NAMED : ordinal;
+    }
+
+    /**
+     * 取得结点组名
+     **/
+    public static String groupName(int group) {
+        return GROUP_NAMES[group];
+    }
+
+    public TreeNode<?> get(int group, Object id) {
+        int position = position(group, id);
+        return position < 0 ? null : nodes[position];
+    }
+
+    public TreeNode<?> get(int group, long id) {
+        GroupTable table = group < tables.length ? tables[group] : null;
+        int position = table == null ? LongIntMap.MISSING : table.numbers.get(id);
+        if (position < 0 && unregistered) {
+            position = position(group, (Object) id);
+        }
+        return position < 0 ? null : nodes[position];
+    }
+
+    /**
+     * 按旧的字符串标识（nodeGroup + id 或 root等）查找结点
+     **/
+    public TreeNode<?> get(String key) {
+        int position = position(key);
+        return position < 0 ? null : nodes[position];
+    }
+
+    /**
+     * 写入结点，标识已存在时覆盖
+     *
+     * @return org.zero.utils.tree.TreeNode: 原结点
+     **/
+    public TreeNode<?> put(int group, Object id, TreeNode<?> node) {
+        int position = position(group, id);
+        if (position >= 0) {
+            return replace(position, node);
+        }
+        add(group, id, node);
+        return null;
+    }
+
+    /**
+     * 标识不存在时写入结点
+     *
+     * @return org.zero.utils.tree.TreeNode: 已存在的结点，不存在时返回null
+     **/
+    public TreeNode<?> putIfAbsent(int group, Object id, TreeNode<?> node) {
+        int position = position(group, id);
+        if (position >= 0) {
+            return nodes[position];
+        }
+        add(group, id, node);
+        return null;
+    }
+
+    /**
+     * 整数主键不存在时写入结点（不装箱）
+     *
+     * @return org.zero.utils.tree.TreeNode: 已存在的结点，不存在时返回null
+     **/
+    public TreeNode<?> putIfAbsent(int group, long id, TreeNode<?> node) {
+        GroupTable table = group < tables.length ? tables[group] : null;
+        int position = table == null ? LongIntMap.MISSING : table.numbers.get(id);
+        if (position < 0 && unregistered) {
+            position = position(group, (Object) id);
+        }
+        if (position >= 0) {
+            return nodes[position];
+        }
+        addNumber(group, id, node);
+        return null;
+    }
+
+    /**
+     * 按旧的字符串标识写入结点：标识已存在时覆盖（查找规则同get(String)）；否则以本索引已有的结点组名开头时拆分为结点组 + 主键按组存放
+     * （取candidates的第一个拆分），使之后按组和主键能查到、不会重复写入；否则单独存放
+     **/
+    public TreeNode<?> put(String key, TreeNode<?> node) {
+        int position = position(key);
+        if (position >= 0) {
+            return replace(position, node);
+        }
+        int[] candidates = candidates(key);
+        if (candidates.length == 0) {
+            add(NAMED, key, node);
+        } else {
+            add(candidates[0], key.substring(groupName(candidates[0]).length()), node);
+        }
+        return null;
+    }
+
+    public TreeNode<?> remove(int group, Object id) {
+        return removeAt(position(group, id));
+    }
+
+    public TreeNode<?> remove(String key) {
+        return removeAt(position(key));
+    }
+
+    /**
+     * 删除结点的标识
+     *
+     * @return boolean: 结点是否在索引中
+     **/
+    public boolean remove(TreeNode<?> node) {
+        return removeAt(position(node)) != null;
+    }
+
+    /**
+     * 结点是否在索引中
+     **/
+    public boolean contains(TreeNode<?> node) {
+        return position(node) >= 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        tables = new GroupTable[0];
+        named.clear();
+        unregistered = false;
+        positions = null;
+        modCount++;
+        Arrays.fill(nodes, 0, count, null);
+        Arrays.fill(others, 0, count, null);
+        count = 0;
+        size = 0;
+    }
+
+    /**
+     * 合并另一个索引的全部标识（覆盖已存在的标识），不产生字符串拼接
+     **/
+    public void putAll(NodeIndex other) {
+        unregistered |= other.unregistered;
+        for (int group = 0; group < other.tables.length; group++) {
+            reserve(group, groupSize(group) + other.groupSize(group));
+        }
+        for (int i = 0; i < other.count; i++) {
+            if (other.nodes[i] != null) {
+                if (other.groups[i] == NAMED) {
+                    put((String) other.others[i], other.nodes[i]);
+                } else {
+                    put(other.groups[i], other.idAt(i), other.nodes[i]);
+                }
+            }
+        }
+    }
+
+    /**
+     * 以旧字符串标识（nodeGroup + id）访问的Map视图，读写都直接作用于本索引，遍历时才生成字符串标识
+     * <p>
+     * 注意：主键按normalize规范化后存放，标识中的主键部分为规范化后的主键：整数值的Integer、BigInteger、小数位为0的BigDecimal、
+     * 十进制整数字符串都按Long存放，如主键为new BigDecimal("1.0")的结点标识为dept1，按"dept" + new BigDecimal("1.0")（即dept1.0）查找不到；
+     * 查找时先按原样查找单独存放的标识，再按position(String)的规则拆分为结点组 + 主键
+     **/
+    public Map<String, TreeNode<?>> asMap() {
+        if (view == null) {
+            view = new LegacyView();
+        }
+        return view;
+    }
+
+    /**
+     * 标识所在位置，不存在时返回负数
+     **/
+    int position(int group, Object id) {
+        if (group == NAMED) {
+            Integer position = named.get(String.valueOf(id));
+            return position == null ? LongIntMap.MISSING : position;
+        }
+        GroupTable table = group < tables.length ? tables[group] : null;
+        int position = LongIntMap.MISSING;
+        if (table != null) {
+            if (isLong(id)) {
+                position = table.numbers.get(toLong(id));
+            } else if (table.others != null) {
+                Integer found = table.others.get(id);
+                position = found == null ? LongIntMap.MISSING : found;
+            }
+        }
+        if (position < 0 && unregistered) {
+            Integer found = named.get(groupName(group) + normalize(id));
+            position = found == null ? LongIntMap.MISSING : found;
+        }
+        return position;
+    }
+
+    int position(TreeNode<?> node) {
+        IdentityHashMap<TreeNode<?>, Integer> map = positions;
+        if (map == null) {
+            map = new IdentityHashMap<>(size * 2);
+            for (int i = 0; i < count; i++) {
+                if (nodes[i] != null) {
+                    map.put(nodes[i], i);
+                }
+            }
+            positions = map;
+        }
+        Integer position = map.get(node);
+        return position == null ? LongIntMap.MISSING : position;
+    }
+
+    /**
+     * 旧字符串标识所在位置：先按原样查找单独存放的标识，再按candidates的顺序逐个拆分查找，不存在时返回负数
+     **/
+    int position(String key) {
+        Integer position = named.get(key);
+        if (position != null) {
+            return position;
+        }
+        for (int group : candidates(key)) {
+            int found = position(group, key.substring(groupName(group).length()));
+            if (found >= 0) {
+                return found;
+            }
+        }
+        return LongIntMap.MISSING;
+    }
+
+    /**
+     * 旧字符串标识可拆分成的结点组（本索引中已有、组名是标识的真前缀）：余下部分为整数的在前，同类中组名长的在前，
+     * 与结点组的登记顺序无关（如有结点组a和a1时，a12拆分为a1 + 2，其次为a + 12；a1x拆分为a1 + x，其次为a + 1x）
+     **/
+    private int[] candidates(String key) {
+        int[] candidates = new int[tables.length];
+        int size = 0;
+        for (int group = 0; group < tables.length; group++) {
+            if (tables[group] != null) {
+                String name = groupName(group);
+                if (key.length() > name.length() && key.startsWith(name)) {
+                    // 按优先顺序插入
+                    int rank = rank(key, name);
+                    int i = size++;
+                    while (i > 0 && rank(key, groupName(candidates[i - 1])) < rank) {
+                        candidates[i] = candidates[i - 1];
+                        i--;
+                    }
+                    candidates[i] = group;
+                }
+            }
+        }
+        return Arrays.copyOf(candidates, size);
+    }
+
+    /**
+     * 拆分的优先级：余下部分为整数的优先，其次组名长的优先
+     **/
+    private static int rank(String key, String name) {
+        return (isLong(key, name.length()) ? 1 << 30 : 0) + name.length();
+    }
+
+    TreeNode<?> nodeAt(int position) {
+        return nodes[position];
+    }
+
+    int groupAt(int position) {
+        return groups[position];
+    }
+
+    Object idAt(int position) {
+        return others[position] != null || groups[position] == NAMED ? others[position] : (Object) numbers[position];
+    }
+
+    int modCount() {
+        return modCount;
+    }
+
+    /**
+     * 写入本JVM尚未登记的结点组的标识：不登记结点组，按旧字符串标识（组名 + 主键）单独存放，该结点组之后登记时仍能按组和主键查到
+     **/
+    void putUnregistered(String groupName, Object id, TreeNode<?> node) {
+        unregistered = true;
+        put(NAMED, groupName + normalize(id), node);
+    }
+
+    /**
+     * 已使用的位置数（包含删除后的空位）
+     **/
+    int capacity() {
+        return count;
+    }
+
+    /**
+     * 追加结点
+     *
+     * @return int: 结点位置
+     **/
+    int add(int group, Object id, TreeNode<?> node) {
+        if (group != NAMED && isLong(id)) {
+            return addNumber(group, toLong(id), node);
+        }
+        int position = append(group, node);
+        if (group == NAMED) {
+            others[position] = String.valueOf(id);
+            named.put((String) others[position], position);
+        } else {
+            GroupTable table = table(group);
+            others[position] = id;
+            if (table.others == null) {
+                table.others = new HashMap<>();
+            }
+            table.others.put(id, position);
+        }
+        size++;
+        modCount++;
+        return position;
+    }
+
+    /**
+     * 追加整数主键的结点
+     *
+     * @return int: 结点位置
+     **/
+    private int addNumber(int group, long id, TreeNode<?> node) {
+        int position = append(group, node);
+        numbers[position] = id;
+        table(group).numbers.put(id, position);
+        size++;
+        modCount++;
+        return position;
+    }
+
+    /**
+     * 并行批量追加同一结点组的整数主键结点：主键重复时只追加下标最小的，按下标顺序占用位置
+     * <p>
+     * 该结点组已有标识（或有未登记结点组的标识）时逐个追加（结果相同）
+     *
+     * @param group: 结点组序号
+     * @param ids:   主键
+     * @param nodes: 结点（与ids一一对应）
+     * @return int[]: 位置 -> 结点在ids中的下标（不是本次追加的位置为-1）
+     **/
+    int[] addNumbersParallel(int group, long[] ids, TreeNode<?>[] nodes) {
+        int total = ids.length;
+        if (group == NAMED || unregistered || groupSize(group) > 0) {
+            int[] inputs = new int[count + total];
+            Arrays.fill(inputs, -1);
+            for (int i = 0; i < total; i++) {
+                if (position(group, ids[i]) < 0) {
+                    inputs[addNumber(group, ids[i], nodes[i])] = i;
+                }
+            }
+            return Arrays.copyOf(inputs, count);
+        }
+
+        // 主键表的值先写为下标，再换成位置
+        LongIntMap table = table(group).numbers;
+        boolean[] inserted = new boolean[total];
+        table.putIndexesParallel(ids, inserted);
+        int start = count;
+        int[] targets = new int[total];
+        int position = start;
+        for (int i = 0; i < total; i++) {
+            if (inserted[i]) {
+                targets[i] = position++;
+            }
+        }
+        table.remapValues(targets);
+        while (this.nodes.length < position) {
+            grow();
+        }
+        int[] inputs = new int[position];
+        Arrays.fill(inputs, 0, start, -1);
+        IntStream.range(0, total).parallel().filter((i) -> inserted[i]).forEach((i) -> {
+            int target = targets[i];
+            this.nodes[target] = nodes[i];
+            groups[target] = group;
+            numbers[target] = ids[i];
+            inputs[target] = i;
+        });
+        count = position;
+        size += position - start;
+        modCount++;
+        positions = null;
+        return inputs;
+    }
+
+    /**
+     * 占用下一个位置存放结点（标识由调用方写入）
+     **/
+    private int append(int group, TreeNode<?> node) {
+        if (count == nodes.length) {
+            grow();
+        }
+        int position = count++;
+        nodes[position] = node;
+        groups[position] = group;
+        if (positions != null) {
+            positions.put(node, position);
+        }
+        return position;
+    }
+
+    private TreeNode<?> removeAt(int position) {
+        if (position < 0) {
+            return null;
+        }
+        TreeNode<?> old = unlink(position);
+        // 空位超过一半时压缩
+        if (count > 64 && size < count / 2) {
+            compact();
+        }
+        return old;
+    }
+
+    /**
+     * 删除指定位置的标识（不压缩）
+     **/
+    private TreeNode<?> unlink(int position) {
+        TreeNode<?> old = nodes[position];
+        if (groups[position] == NAMED) {
+            named.remove(others[position]);
+        } else if (others[position] == null) {
+            tables[groups[position]].numbers.remove(numbers[position]);
+        } else {
+            tables[groups[position]].others.remove(others[position]);
+        }
+        if (positions != null) {
+            positions.remove(old);
+        }
+        nodes[position] = null;
+        others[position] = null;
+        size--;
+        modCount++;
+        return old;
+    }
+
+    private TreeNode<?> replace(int position, TreeNode<?> node) {
+        TreeNode<?> old = nodes[position];
+        nodes[position] = node;
+        if (positions != null) {
+            positions.remove(old);
+            positions.put(node, position);
+        }
+        modCount++;
+        return old;
+    }
+
+    /**
+     * 按预计数量预留结点组主键表的容量（用于已知该组结点数量的批量写入，已有的容量不缩小）
+     **/
+    void reserve(int group, int expectedSize) {
+        if (group != NAMED && expectedSize > GROUP_INITIAL_SIZE) {
+            table(group).numbers.ensureCapacity(expectedSize);
+        }
+    }
+
+    /**
+     * 结点组在本层的标识数量
+     **/
+    private int groupSize(int group) {
+        GroupTable table = group < tables.length ? tables[group] : null;
+        if (table == null) {
+            return 0;
+        }
+        return table.numbers.size() + (table.others == null ? 0 : table.others.size());
+    }
+
+    private GroupTable table(int group) {
+        if (group >= tables.length) {
+            tables = Arrays.copyOf(tables, group + 1);
+        }
+        if (tables[group] == null) {
+            tables[group] = new GroupTable(GROUP_INITIAL_SIZE);
+        }
+        return tables[group];
+    }
+
+    private void grow() {
+        int capacity = nodes.length << 1;
+        nodes = Arrays.copyOf(nodes, capacity);
+        groups = Arrays.copyOf(groups, capacity);
+        numbers = Arrays.copyOf(numbers, capacity);
+        others = Arrays.copyOf(others, capacity);
+    }
+
+    private void compact() {
+        TreeNode<?>[] oldNodes = nodes;
+        int[] oldGroups = groups;
+        long[] oldNumbers = numbers;
+        Object[] oldOthers = others;
+        int oldCount = count;
+        int[] groupSizes = new int[tables.length];
+        for (int group = 0; group < tables.length; group++) {
+            groupSizes[group] = groupSize(group);
+        }
+        nodes = new TreeNode<?>[Math.max(16, size * 2)];
+        groups = new int[nodes.length];
+        numbers = new long[nodes.length];
+        others = new Object[nodes.length];
+        tables = new GroupTable[tables.length];
+        for (int group = 0; group < groupSizes.length; group++) {
+            reserve(group, groupSizes[group]);
+        }
+        named.clear();
+        count = 0;
+        size = 0;
+        for (int i = 0; i < oldCount; i++) {
+            if (oldNodes[i] != null) {
+                add(oldGroups[i], oldOthers[i] != null || oldGroups[i] == NAMED ? oldOthers[i] : (Object) oldNumbers[i], oldNodes[i]);
+            }
+        }
+    }
+
+    /**
+     * 规范化主键：整数主键统一为Long，使Integer、Long、long范围内的BigInteger及小数位为0的BigDecimal、十进制整数字符串的同值主键相等
+     **/
+    static Object normalize(Object id) {
+        return isLong(id) ? (Object) toLong(id) : id;
+    }
+
+    static boolean isLong(Object id) {
+        return id instanceof Long || id instanceof Integer || id instanceof Short || id instanceof Byte
+                || id instanceof String && isLong((String) id, 0)
+                || id instanceof BigInteger && ((BigInteger) id).bitLength() < Long.SIZE
+                || id instanceof BigDecimal && isLong((BigDecimal) id);
+    }
+
+    /**
+     * 小数位为0且在long范围内（如数据库NUMBER列、JSON中的大数）
+     **/
+    private static boolean isLong(BigDecimal decimal) {
+        if (decimal.signum() == 0) {
+            return true;
+        }
+        // 整数部分超过19位时必然超出long范围，不再转换
+        if (decimal.precision() - decimal.scale() > 19) {
+            return false;
+        }
+        if (decimal.scale() > 0 && decimal.stripTrailingZeros().scale() > 0) {
+            return false;
+        }
+        return decimal.toBigInteger().bitLength() < Long.SIZE;
+    }
+
+    static long toLong(Object id) {
+        return id instanceof Number ? ((Number) id).longValue() : Long.parseLong((String) id);
+    }
+
+    /**
+     * 字符串从start开始是否为规范的十进制long（无前导0、无多余符号），与Long.toString的结果一一对应
+     **/
+    private static boolean isLong(String text, int start) {
+        int length = text.length() - start;
+        if (length <= 0 || length > 20) {
+            return false;
+        }
+        int i = start;
+        if (text.charAt(i) == '-') {
+            if (length == 1 || text.charAt(i + 1) == '0') {
+                return false;
+            }
+            i++;
+        } else if (text.charAt(i) == '0') {
+            return length == 1;
+        }
+        for (; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        int digits = text.length() - (text.charAt(start) == '-' ? start + 1 : start);
+        if (digits < 19) {
+            return true;
+        }
+        if (digits > 19) {
+            return false;
+        }
+        // 19位时与边界值比较，避免溢出
+        String bound = text.charAt(start) == '-' ? "9223372036854775808" : "9223372036854775807";
+        return text.substring(text.length() - 19).compareTo(bound) <= 0;
+    }
+
+    /**
+     * 单个结点组的主键表
+     **/
+    private static final class GroupTable {
+
+        private final LongIntMap numbers;
+
+        private HashMap<Object, Integer> others;
+
+        private GroupTable(int expectedSize) {
+            this.numbers = new LongIntMap(expectedSize);
+        }
+    }
+
+    /**
+     * 旧字符串标识视图
+     **/
+    private final class LegacyView extends AbstractMap<String, TreeNode<?>> {
+
+        @Override
+        public TreeNode<?> get(Object key) {
+            return key instanceof String ? NodeIndex.this.get((String) key) : null;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return get(key) != null;
+        }
+
+        @Override
+        public TreeNode<?> put(String key, TreeNode<?> value) {
+            return NodeIndex.this.put(key, value);
+        }
+
+        @Override
+        public TreeNode<?> remove(Object key) {
+            return key instanceof String ? NodeIndex.this.remove((String) key) : null;
+        }
+
+        @Override
+        public int size() {
+            return NodeIndex.this.size();
+        }
+
+        @Override
+        public void clear() {
+            NodeIndex.this.clear();
+        }
+
+        @Override
+        public Set<Entry<String, TreeNode<?>>> entrySet() {
+            return new AbstractSet<Entry<String, TreeNode<?>>>() {
+                @Override
+                public Iterator<Entry<String, TreeNode<?>>> iterator() {
+                    return new Iterator<Entry<String, TreeNode<?>>>() {
+
+                        private int next = advance(0);
+
+                        private int current = -1;
+
+                        private int advance(int from) {
+                            while (from < count && nodes[from] == null) {
+                                from++;
+                            }
+                            return from;
+                        }
+
+                        @Override
+                        public boolean hasNext() {
+                            return next < count;
+                        }
+
+                        @Override
+                        public Entry<String, TreeNode<?>> next() {
+                            if (next >= count) {
+                                throw new NoSuchElementException();
+                            }
+                            current = next;
+                            next = advance(next + 1);
+                            String key = groups[current] == NAMED ? (String) others[current] : groupName(groups[current]) + idAt(current);
+                            return new SimpleImmutableEntry<>(key, nodes[current]);
+                        }
+
+                        @Override
+                        public void remove() {
+                            if (current < 0) {
+                                throw new IllegalStateException();
+                            }
+                            // 删除时不压缩，保证遍历位置不变
+                            unlink(current);
+                            current = -1;
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return NodeIndex.this.size();
+                }
+            };
+        }
+    }
+
+}
@@ -0,0 +1,54 @@
+package org.zero.utils.tree;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 将树构建统计输出到SLF4J日志的监听器
+ * <p>
+ * 耗时超过阈值、或存在孤立/丢弃结点的构建以WARN级别输出，其余构建以DEBUG级别输出；构建提示以WARN级别输出
+ *
+ * @author : cgl
+ * @version : 1.0
+ * @since : 2026/10/17 15:08
+ **/
+public class Slf4jTreeBuildListener implements TreeBuildListener {
+
+    private final Logger logger;
+
+    private final long slowNanos;
+
+    /**
+     * 使用Tree的日志，构建耗时超过1秒时告警
+     **/
+    public Slf4jTreeBuildListener() {
+        this(LoggerFactory.getLogger(Tree.class), 1000);
+    }
+
+    /**
+     * @param logger:     日志
+     * @param slowMillis: 告警的构建耗时阈值（毫秒）
+     **/
+    public Slf4jTreeBuildListener(Logger logger, long slowMillis) {
+        this.logger = logger;
+        this.slowNanos = TimeUnit.MILLISECONDS.toNanos(slowMillis);
+    }
+
+    @Override
+    public void onBuilt(TreeBuildMetrics metrics) {
+        if (metrics.getTotalNanos() >= slowNanos || metrics.getOrphanCount() > 0 || metrics.getDroppedCount() > 0) {
+            logger.warn("树构建耗时{}ms，孤立结点{}个，丢弃结点{}个：{}", TimeUnit.NANOSECONDS.toMillis(metrics.getTotalNanos()),
+                    metrics.getOrphanCount(), metrics.getDroppedCount(), metrics);
+        } else if (logger.isDebugEnabled()) {
+            logger.debug("树构建耗时{}ms：{}", TimeUnit.NANOSECONDS.toMillis(metrics.getTotalNanos()), metrics);
+        }
+    }
+
+    @Override
+    public void onWarning(String operation, String message) {
+        logger.warn("{}：{}", operation, message);
+    }
+
+}
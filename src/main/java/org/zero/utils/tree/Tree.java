@@ -1,11 +1,36 @@
 package org.zero.utils.tree;
 
+import com.alibaba.fastjson.annotation.JSONField;
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.Function;
+import java.util.function.LongBinaryOperator;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToLongFunction;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * 树数据结构
@@ -21,6 +46,7 @@ public class Tree {
     /**
      * 根节点
      **/
+    @Setter(AccessLevel.NONE)
     private TreeNode<?> root;
 
     /**
@@ -32,10 +58,88 @@ public class Tree {
     private final static String DEFAULT_ROOT_KEY = "root";
 
     /**
-     * 维护结点标识与结点关系的map
+     * 并行构建的最小元素数量，少于该数量时顺序构建
+     **/
+    public final static int PARALLEL_THRESHOLD = 10000;
+
+    /**
+     * 构建监听器（为null时不统计）
+     **/
+    private static volatile TreeBuildListener buildListener;
+
+    public Tree() {
+        this(16);
+    }
+
+    private Tree(int expectedSize) {
+        this.index = new NodeIndex(expectedSize);
+        this.map = index.asMap();
+    }
+
+    /**
+     * 注册构建监听器（全局，为null时取消），用于统计各次build、combine的阶段耗时、结点数量、深度等
+     *
+     * @param listener: 监听器（如Slf4jTreeBuildListener）
+     * @author : cgl
+     * @since 2026/10/17 15:08
+     **/
+    public static void setBuildListener(TreeBuildListener listener) {
+        buildListener = listener;
+    }
+
+    public static TreeBuildListener getBuildListener() {
+        return buildListener;
+    }
+
+    /**
+     * 结点标识（结点组 + 主键）与结点的索引
+     **/
+    @JsonIgnore
+    @JSONField(serialize = false)
+    @Setter(AccessLevel.NONE)
+    private NodeIndex index;
+
+    /**
+     * 维护结点标识与结点关系的map（index的旧字符串标识视图，标识为nodeGroup + id）
+     * <p>
+     * 注：类型已由HashMap改为Map（getMap的返回值、setMap的参数），不兼容原有按HashMap使用的调用方，见CHANGELOG
+     **/
+    @JsonIgnore
+    @Setter(AccessLevel.NONE)
+    private Map<String, TreeNode<?>> map;
+
+    /**
+     * 构建时找不到父结点、且不属于最小层级的结点（连同其已挂上的子结点），仅buildUnordered会填充
+     **/
+    @JsonIgnore
+    private List<TreeNode<?>> orphans = new ArrayList<>();
+
+    /**
+     * 结构修改次数（增删移动结点、拼接、替换根结点或索引时递增），用于判断区间索引是否失效
+     **/
+    @JsonIgnore
+    @JSONField(serialize = false)
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private transient int modCount;
+
+    /**
+     * 最近一次创建的区间索引
+     **/
+    @JsonIgnore
+    @JSONField(serialize = false)
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private transient TreeIntervalIndex intervalIndex;
+
+    /**
+     * 最近一次创建的路径索引
      **/
     @JsonIgnore
-    private HashMap<String, TreeNode<?>> map = new HashMap<>();
+    @JSONField(serialize = false)
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private transient TreePathIndex pathIndex;
 
     /**
      * 生成树形结构数据
@@ -91,21 +195,8 @@ public class Tree {
      * @since 2019/11/28 17:21
      **/
     public static <T> Tree build(List<T> list, String nodeGroup, String rootKey, String idField, String parentIdField, boolean needSort, String levelField) throws Exception {
-        Tree tree = new Tree();
-        // 创建根节点
-        tree.root = new TreeNode<T>();
-        tree.rootKey = DEFAULT_ROOT_KEY;
-        tree.map.put(DEFAULT_ROOT_KEY, tree.root);
-
         if (list == null || list.size() == 0) {
-            return tree;
-        }
-        // 结点组名为空时，取元素类名
-        if (nodeGroup == null || "".equals(nodeGroup)) {
-            nodeGroup = list.get(0).getClass().getSimpleName().toLowerCase().replace("dto", "");
-        }
-        if (rootKey == null || "".equals(rootKey)) {
-            rootKey = DEFAULT_ROOT_KEY;
+            return build(list, nodeGroup, rootKey, (Function<T, ?>) null, null, false, null);
         }
         if (idField == null || "".equals(idField)) {
             idField = "Id";
@@ -117,65 +208,499 @@ public class Tree {
             levelField = "Level";
         }
 
-        if (needSort) {
-            ItemComparator<T> comparator = new ItemComparator<>(levelField);
-            list.sort(comparator);
+        // 每个字段只解析一次get方法，后续按编译后的调用器取值
+        Class<?> itemClass = list.get(0).getClass();
+        ItemAccessor idGetter = ItemAccessor.of(itemClass, idField);
+
+        // 不存在parentId字段时，所有元素都作为root的一级子结点
+        ItemAccessor parentIdGetter;
+        try {
+            parentIdGetter = ItemAccessor.of(itemClass, parentIdField);
+        } catch (NoSuchMethodException e) {
+            parentIdGetter = null;
+        }
+
+        ItemAccessor levelGetter;
+        try {
+            levelGetter = ItemAccessor.of(itemClass, levelField);
+        } catch (NoSuchMethodException e) {
+            levelGetter = null;
+            TreeBuildMetrics.warn("build", "结点层级字段不存在：" + levelField);
         }
 
-        boolean hasParentField = true;
-        String parentKey = "";
+        return build(list, nodeGroup, rootKey, idGetter, parentIdGetter, needSort && levelGetter != null, levelGetter);
+    }
+
+    /**
+     * 从根结点开始构建树形结构数据（使用类型安全的取值函数，不经过反射）
+     *
+     * @param list:           元素列表
+     * @param nodeGroup:      结点组名（通常设置为元素类型名）
+     * @param rootKey:        根节点标识（默认为root, 如果该树是其它树的子树，那么需要设置根节点标识，以便查找其它树的叶子结点以拼接）
+     * @param idGetter:       主键取值函数
+     * @param parentIdGetter: 父主键取值函数（为null时，所有元素都作为root的一级子结点）
+     * @param needSort:       是否需要对list进行结点层级排序（原则上不在这里排序，尽量先对list排好序再传进来；整数层级按计数排序，O(n)）
+     * @param levelGetter:    结点层级取值函数（可为null）
+     * @return org.zero.utils.tree.Tree:
+     * @author : cgl
+     * @since 2026/10/17 14:28
+     **/
+    public static <T> Tree build(List<T> list, String nodeGroup, String rootKey, Function<? super T, ?> idGetter, Function<? super T, ?> parentIdGetter, boolean needSort, Function<? super T, ?> levelGetter) {
+        Tree tree = create(list);
+
+        if (list == null || list.size() == 0) {
+            return tree;
+        }
+        // 结点组名为空时，取元素类名
+        if (nodeGroup == null || "".equals(nodeGroup)) {
+            nodeGroup = list.get(0).getClass().getSimpleName().toLowerCase().replace("dto", "");
+        }
+        int group = NodeIndex.group(nodeGroup);
+        tree.index.reserve(group, list.size());
+        TreeBuildMetrics metrics = TreeBuildMetrics.start("build");
+        if (needSort && levelGetter != null) {
+            ItemComparator.sort(list, levelGetter);
+            if (metrics != null) {
+                metrics.sorted();
+            }
+        }
 
         // 将第一个结点的排序字段的值最为层级最小值(默认为0)
         int minLevel = 0;
         boolean levelIsNumber = false;
-        try {
-            Object minLevelObj = list.get(0).getClass().getMethod("get" + levelField).invoke(list.get(0));
+        if (levelGetter != null) {
+            Object minLevelObj = levelGetter.apply(list.get(0));
             if (minLevelObj instanceof Integer || minLevelObj instanceof Long) {
-                minLevel = Long.valueOf(minLevelObj.toString()).intValue();
+                minLevel = ((Number) minLevelObj).intValue();
                 levelIsNumber = true;
             }
-        } catch (Exception e) {
-            System.out.println("结点层级字段不存在");
         }
 
         // 遍历列表，将结点添加到树
+        int dropped = 0;
         for (T item : list) {
             TreeNode<T> node = new TreeNode<>();
             node.setItem(item);
 
-            // 一开始先假设存在parentId字段，如果不存在，则固定使用rootKey作为父结点标识，所有元素都作为root的一级子结点
-            if (hasParentField) {
+            // 不存在parentId字段时，所有元素都作为root的一级子结点
+            TreeNode<?> parent = parentIdGetter == null ? tree.root : tree.index.get(group, parentIdGetter.apply(item));
+
+            // 结点的父结点存在，则添加到父结点下，否则根据结点的层级是否为最小层级，来决定是否添加到根结点
+            if (parent != null) {
+                parent.addChild(node);
+            } else if (levelIsNumber && ((Number) levelGetter.apply(item)).intValue() == minLevel) {
+                tree.root.addChild(node);
+            } else {
+                dropped++;
+            }
+
+            // 结点自身的标识
+            tree.index.put(group, idGetter.apply(item), node);
+        }
+
+        tree.changeRootKey(rootKey);
+        if (metrics != null) {
+            metrics.linked();
+            metrics.counts(nodeGroup, list.size(), parentIdGetter != null, tree.root.getChildren().size(), 0, dropped);
+            metrics.finish(tree);
+        }
+        return tree;
+    }
+
+    /**
+     * 生成树形结构数据（元素无需排序）
+     *
+     * @param list:      元素列表（任意顺序）
+     * @param nodeGroup: 结点组名（通常设置为元素类型名）
+     * @param rootKey:   根节点标识（默认为root）
+     * @return org.zero.utils.tree.Tree:
+     * @author : cgl
+     * @since 2026/10/17 14:29
+     **/
+    public static <T> Tree buildUnordered(List<T> list, String nodeGroup, String rootKey) throws Exception {
+        return buildUnordered(list, nodeGroup, rootKey, "Id", "ParentId", "Level");
+    }
+
+    /**
+     * 生成树形结构数据（元素无需排序）
+     *
+     * @param list:          元素列表（任意顺序）
+     * @param nodeGroup:     结点组名（通常设置为元素类型名）
+     * @param rootKey:       根节点标识（默认为root）
+     * @param idField:       主键名称（首字母大写，以便调用元素的getIdField方法）
+     * @param parentIdField: 父主键名称（首字母大写，以便调用元素的getParentIdField方法，不存在时所有元素都作为root的一级子结点）
+     * @param levelField:    结点层级字段（首字母大写，可不存在）
+     * @return org.zero.utils.tree.Tree:
+     * @author : cgl
+     * @since 2026/10/17 14:29
+     **/
+    public static <T> Tree buildUnordered(List<T> list, String nodeGroup, String rootKey, String idField, String parentIdField, String levelField) throws Exception {
+        if (list == null || list.size() == 0) {
+            return buildUnordered(list, nodeGroup, rootKey, (Function<T, ?>) null, null, null);
+        }
+        if (idField == null || "".equals(idField)) {
+            idField = "Id";
+        }
+        if (parentIdField == null || "".equals(parentIdField)) {
+            parentIdField = "ParentId";
+        }
+        if (levelField == null || "".equals(levelField)) {
+            levelField = "Level";
+        }
+
+        Class<?> itemClass = list.get(0).getClass();
+        ItemAccessor idGetter = ItemAccessor.of(itemClass, idField);
+        ItemAccessor parentIdGetter;
+        try {
+            parentIdGetter = ItemAccessor.of(itemClass, parentIdField);
+        } catch (NoSuchMethodException e) {
+            parentIdGetter = null;
+        }
+        ItemAccessor levelGetter;
+        try {
+            levelGetter = ItemAccessor.of(itemClass, levelField);
+        } catch (NoSuchMethodException e) {
+            levelGetter = null;
+        }
+        return buildUnordered(list, nodeGroup, rootKey, idGetter, parentIdGetter, levelGetter);
+    }
+
+    /**
+     * 生成树形结构数据（元素无需排序，单次遍历O(n)，不做排序）
+     * <p>
+     * 父结点尚未出现的结点先挂起，等父结点出现时再挂到其下，子结点顺序与列表顺序一致；
+     * 遍历结束后仍找不到父结点的结点，如果父主键为null，或层级等于所有元素的最小层级（未提供层级时不区分层级），则作为root的一级子结点，
+     * 否则记录到orphans中，不再静默丢弃。主键重复时以先出现的结点为准
+     *
+     * @param list:           元素列表（任意顺序）
+     * @param nodeGroup:      结点组名（通常设置为元素类型名）
+     * @param rootKey:        根节点标识（默认为root）
+     * @param idGetter:       主键取值函数
+     * @param parentIdGetter: 父主键取值函数（为null时，所有元素都作为root的一级子结点）
+     * @param levelGetter:    结点层级取值函数（可为null）
+     * @return org.zero.utils.tree.Tree:
+     * @author : cgl
+     * @since 2026/10/17 14:29
+     **/
+    public static <T> Tree buildUnordered(List<T> list, String nodeGroup, String rootKey, Function<? super T, ?> idGetter, Function<? super T, ?> parentIdGetter, Function<? super T, ?> levelGetter) {
+        return assemble(list == null ? null : list.iterator(), list == null ? 16 : list.size() + 1, nodeGroup, rootKey, idGetter, parentIdGetter, levelGetter, null);
+    }
+
+    /**
+     * 单次遍历数据源生成树形结构数据（元素无需排序），不持有数据源的元素列表，规则同buildUnordered(List)
+     *
+     * @param source:         数据源（如分页查询结果的迭代器、数据库游标，只遍历一次）
+     * @param nodeGroup:      结点组名（为空时取第一个元素的类型名）
+     * @param rootKey:        根节点标识（默认为root）
+     * @param idGetter:       主键取值函数
+     * @param parentIdGetter: 父主键取值函数（为null时，所有元素都作为root的一级子结点）
+     * @param levelGetter:    结点层级取值函数（可为null）
+     * @param projection:     元素投影函数（将数据源元素转换为存入结点的较小对象，为null时直接存入数据源元素）
+     * @return org.zero.utils.tree.Tree:
+     * @author : cgl
+     * @since 2026/10/17 14:52
+     **/
+    public static <T> Tree buildUnordered(Iterator<T> source, String nodeGroup, String rootKey, Function<? super T, ?> idGetter, Function<? super T, ?> parentIdGetter, Function<? super T, ?> levelGetter, Function<? super T, ?> projection) {
+        return assemble(source, 16, nodeGroup, rootKey, idGetter, parentIdGetter, levelGetter, projection);
+    }
+
+    /**
+     * 单次遍历数据源生成树形结构数据（元素无需排序），规则同buildUnordered(List)
+     *
+     * @param source:         数据源（只遍历一次）
+     * @param nodeGroup:      结点组名（为空时取第一个元素的类型名）
+     * @param rootKey:        根节点标识（默认为root）
+     * @param idGetter:       主键取值函数
+     * @param parentIdGetter: 父主键取值函数（为null时，所有元素都作为root的一级子结点）
+     * @param levelGetter:    结点层级取值函数（可为null）
+     * @param projection:     元素投影函数（为null时直接存入数据源元素）
+     * @return org.zero.utils.tree.Tree:
+     * @author : cgl
+     * @since 2026/10/17 14:52
+     **/
+    public static <T> Tree buildUnordered(Iterable<T> source, String nodeGroup, String rootKey, Function<? super T, ?> idGetter, Function<? super T, ?> parentIdGetter, Function<? super T, ?> levelGetter, Function<? super T, ?> projection) {
+        int expectedSize = source instanceof Collection ? ((Collection<?>) source).size() + 1 : 16;
+        return assemble(source == null ? null : source.iterator(), expectedSize, nodeGroup, rootKey, idGetter, parentIdGetter, levelGetter, projection);
+    }
+
+    /**
+     * 单次遍历流生成树形结构数据（元素无需排序，按流的顺序消费，不关闭流），规则同buildUnordered(List)
+     *
+     * @param source:         数据流
+     * @param nodeGroup:      结点组名（为空时取第一个元素的类型名）
+     * @param rootKey:        根节点标识（默认为root）
+     * @param idGetter:       主键取值函数
+     * @param parentIdGetter: 父主键取值函数（为null时，所有元素都作为root的一级子结点）
+     * @param levelGetter:    结点层级取值函数（可为null）
+     * @param projection:     元素投影函数（为null时直接存入数据源元素）
+     * @return org.zero.utils.tree.Tree:
+     * @author : cgl
+     * @since 2026/10/17 14:52
+     **/
+    public static <T> Tree buildUnordered(Stream<T> source, String nodeGroup, String rootKey, Function<? super T, ?> idGetter, Function<? super T, ?> parentIdGetter, Function<? super T, ?> levelGetter, Function<? super T, ?> projection) {
+        return assemble(source == null ? null : source.iterator(), 16, nodeGroup, rootKey, idGetter, parentIdGetter, levelGetter, projection);
+    }
+
+    /**
+     * 单次遍历数据库查询结果生成树形结构数据（行无需排序，不关闭结果集），规则同buildUnordered(List)
+     * <p>
+     * 主键、父主键、层级按列名从当前行读取（整数类型的数值统一转为Long），结点元素由rowMapper从当前行生成
+     *
+     * @param resultSet:      查询结果（从当前位置向后遍历）
+     * @param nodeGroup:      结点组名（为空时取第一个元素的类型名）
+     * @param rootKey:        根节点标识（默认为root）
+     * @param idColumn:       主键列名（默认为Id）
+     * @param parentIdColumn: 父主键列名（默认为ParentId，列不存在时，所有行都作为root的一级子结点）
+     * @param levelColumn:    层级列名（默认为Level，列不存在时不区分层级）
+     * @param rowMapper:      由当前行生成结点元素
+     * @return org.zero.utils.tree.Tree:
+     * @throws SQLException: 读取结果集失败
+     * @author : cgl
+     * @since 2026/10/17 14:52
+     **/
+    public static <R> Tree buildUnordered(ResultSet resultSet, String nodeGroup, String rootKey, String idColumn, String parentIdColumn, String levelColumn, RowMapper<R> rowMapper) throws SQLException {
+        if (idColumn == null || "".equals(idColumn)) {
+            idColumn = "Id";
+        }
+        if (parentIdColumn == null || "".equals(parentIdColumn)) {
+            parentIdColumn = "ParentId";
+        }
+        if (levelColumn == null || "".equals(levelColumn)) {
+            levelColumn = "Level";
+        }
+        int idIndex = resultSet.findColumn(idColumn);
+        int parentIdIndex = findColumn(resultSet, parentIdColumn);
+        int levelIndex = findColumn(resultSet, levelColumn);
+
+        // 每行读成 {主键, 父主键, 层级, 元素}
+        Iterator<Object[]> rows = new Iterator<Object[]>() {
+
+            private Boolean hasNext;
+
+            @Override
+            public boolean hasNext() {
+                if (hasNext == null) {
+                    try {
+                        hasNext = resultSet.next();
+                    } catch (SQLException e) {
+                        throw new RowException(e);
+                    }
+                }
+                return hasNext;
+            }
+
+            @Override
+            public Object[] next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                hasNext = null;
                 try {
-                    parentKey = nodeGroup + item.getClass().getMethod("get" + parentIdField).invoke(item);
-                } catch (NoSuchMethodException e) {
-                    parentKey = DEFAULT_ROOT_KEY;
-                    hasParentField = false;
+                    return new Object[]{
+                            NodeIndex.normalize(resultSet.getObject(idIndex)),
+                            parentIdIndex < 0 ? null : NodeIndex.normalize(resultSet.getObject(parentIdIndex)),
+                            levelIndex < 0 ? null : NodeIndex.normalize(resultSet.getObject(levelIndex)),
+                            rowMapper.map(resultSet)};
+                } catch (SQLException e) {
+                    throw new RowException(e);
                 }
             }
+        };
+        try {
+            return assemble(rows, 16, nodeGroup, rootKey, (row) -> row[0], (row) -> row[1], (row) -> row[2], (row) -> row[3]);
+        } catch (RowException e) {
+            throw e.getCause();
+        }
+    }
 
-            // 结点的父结点存在，则添加到父结点下，否则根据结点的层级是否为最小层级，来决定是否添加到根结点
-            if (tree.map.containsKey(parentKey)) {
-                tree.map.get(parentKey).getChildren().add(node);
-            } else if (levelIsNumber) {
-                Object levelValueObj = item.getClass().getMethod("get" + levelField).invoke(item);
-                int levelValue = Long.valueOf(levelValueObj.toString()).intValue();
-                if (levelValue == minLevel) {
-                    tree.map.get(DEFAULT_ROOT_KEY).getChildren().add(node);
+    /**
+     * 由查询结果的当前行生成结点元素
+     **/
+    @FunctionalInterface
+    public interface RowMapper<R> {
+
+        R map(ResultSet resultSet) throws SQLException;
+    }
+
+    /**
+     * 并行生成树形结构数据（元素无需排序）
+     *
+     * @param list:          元素列表（任意顺序）
+     * @param nodeGroup:     结点组名（通常设置为元素类型名）
+     * @param rootKey:       根节点标识（默认为root）
+     * @param idField:       主键名称（首字母大写，以便调用元素的getIdField方法）
+     * @param parentIdField: 父主键名称（首字母大写，以便调用元素的getParentIdField方法，不存在时所有元素都作为root的一级子结点）
+     * @param levelField:    结点层级字段（首字母大写，可不存在）
+     * @return org.zero.utils.tree.Tree:
+     * @author : cgl
+     * @since 2026/10/17 14:30
+     **/
+    public static <T> Tree buildParallel(List<T> list, String nodeGroup, String rootKey, String idField, String parentIdField, String levelField) throws Exception {
+        if (list == null || list.size() < PARALLEL_THRESHOLD) {
+            return buildUnordered(list, nodeGroup, rootKey, idField, parentIdField, levelField);
+        }
+        if (idField == null || "".equals(idField)) {
+            idField = "Id";
+        }
+        if (parentIdField == null || "".equals(parentIdField)) {
+            parentIdField = "ParentId";
+        }
+        if (levelField == null || "".equals(levelField)) {
+            levelField = "Level";
+        }
+
+        Class<?> itemClass = list.get(0).getClass();
+        ItemAccessor idGetter = ItemAccessor.of(itemClass, idField);
+        ItemAccessor parentIdGetter;
+        try {
+            parentIdGetter = ItemAccessor.of(itemClass, parentIdField);
+        } catch (NoSuchMethodException e) {
+            parentIdGetter = null;
+        }
+        ItemAccessor levelGetter;
+        try {
+            levelGetter = ItemAccessor.of(itemClass, levelField);
+        } catch (NoSuchMethodException e) {
+            levelGetter = null;
+        }
+        return buildParallel(list, nodeGroup, rootKey, idGetter, parentIdGetter, levelGetter);
+    }
+
+    /**
+     * 并行生成树形结构数据（元素无需排序），结果与buildUnordered完全一致（包括子结点顺序、root一级子结点及orphans的顺序）
+     * <p>
+     * 取键、建结点、建索引、查找父结点均按元素并行执行；再按父结点做一次计数排序，保证每个父结点的子结点按列表顺序、由同一任务挂载。
+     * 在自定义ForkJoinPool的任务中调用时，使用该线程池并行；元素少于PARALLEL_THRESHOLD时直接顺序构建
+     *
+     * @param list:           元素列表（任意顺序，须支持随机访问）
+     * @param nodeGroup:      结点组名（通常设置为元素类型名）
+     * @param rootKey:        根节点标识（默认为root）
+     * @param idGetter:       主键取值函数（须线程安全）
+     * @param parentIdGetter: 父主键取值函数（为null时，所有元素都作为root的一级子结点）
+     * @param levelGetter:    结点层级取值函数（可为null）
+     * @return org.zero.utils.tree.Tree:
+     * @author : cgl
+     * @since 2026/10/17 14:30
+     **/
+    @SuppressWarnings("unchecked")
+    public static <T> Tree buildParallel(List<T> list, String nodeGroup, String rootKey, Function<? super T, ?> idGetter, Function<? super T, ?> parentIdGetter, Function<? super T, ?> levelGetter) {
+        if (list == null || list.size() < PARALLEL_THRESHOLD) {
+            return buildUnordered(list, nodeGroup, rootKey, idGetter, parentIdGetter, levelGetter);
+        }
+        Tree tree = create(list);
+
+        if (nodeGroup == null || "".equals(nodeGroup)) {
+            nodeGroup = list.get(0).getClass().getSimpleName().toLowerCase().replace("dto", "");
+        }
+        int group = NodeIndex.group(nodeGroup);
+        tree.index.reserve(group, list.size());
+        TreeBuildMetrics metrics = TreeBuildMetrics.start("buildParallel");
+        int size = list.size();
+        Object[] items = list.toArray();
+        TreeNode<?>[] nodes = new TreeNode<?>[size];
+        Object[] ids = new Object[size];
+        Object[] parentIds = new Object[size];
+
+        // 1. 建结点、取键
+        IntStream.range(0, size).parallel().forEach((i) -> {
+            T item = (T) items[i];
+            TreeNode<T> node = new TreeNode<>();
+            node.setItem(item);
+            nodes[i] = node;
+            ids[i] = idGetter.apply(item);
+            parentIds[i] = parentIdGetter == null ? null : parentIdGetter.apply(item);
+        });
+
+        long minLevel = levelGetter == null ? Long.MAX_VALUE : IntStream.range(0, size).parallel().mapToLong((i) -> {
+            Object level = levelGetter.apply((T) items[i]);
+            return level instanceof Integer || level instanceof Long ? ((Number) level).longValue() : Long.MAX_VALUE;
+        }).min().orElse(Long.MAX_VALUE);
+
+        // 2. 建索引（基本类型开放寻址表，插入不产生对象），主键重复时以先出现的结点为准；
+        // 主键都是整数时按槽位分段并行写入，否则顺序写入；inputs[索引位置]为该位置结点在列表中的下标
+        long[] numbers = new long[size];
+        boolean numeric = IntStream.range(0, size).parallel().allMatch((i) -> {
+            if (!NodeIndex.isLong(ids[i])) {
+                return false;
+            }
+            numbers[i] = NodeIndex.toLong(ids[i]);
+            return true;
+        });
+        int[] inputs;
+        if (numeric) {
+            inputs = tree.index.addNumbersParallel(group, numbers, nodes);
+        } else {
+            inputs = new int[size + 1];
+            Arrays.fill(inputs, -1);
+            for (int i = 0; i < size; i++) {
+                if (tree.index.position(group, ids[i]) < 0) {
+                    inputs[tree.index.add(group, ids[i], nodes[i])] = i;
                 }
             }
+        }
 
-            // 结点自身的标识
-            String selfKey = nodeGroup + item.getClass().getMethod("get" + idField).invoke(item);
-            tree.map.put(selfKey, node);
+        if (metrics != null) {
+            metrics.indexed();
+        }
+
+        // 3. 并行查找父结点下标（-1表示父结点不存在），索引此时只读
+        int[] parentIndexes = new int[size];
+        IntStream.range(0, size).parallel().forEach((i) -> {
+            int position = parentIds[i] == null ? -1 : tree.index.position(group, parentIds[i]);
+            int parent = position < 0 ? -1 : inputs[position];
+            parentIndexes[i] = parent == i ? -1 : parent;
+        });
+
+        // 4. 按父结点计数排序，offsets[p]~offsets[p + 1]为结点p的子结点（保持列表顺序）
+        int[] offsets = new int[size + 1];
+        for (int parent : parentIndexes) {
+            if (parent >= 0) {
+                offsets[parent + 1]++;
+            }
         }
+        for (int i = 0; i < size; i++) {
+            offsets[i + 1] += offsets[i];
+        }
+        int[] ordered = new int[offsets[size]];
+        int[] cursor = Arrays.copyOf(offsets, size);
+        for (int i = 0; i < size; i++) {
+            if (parentIndexes[i] >= 0) {
+                ordered[cursor[parentIndexes[i]]++] = i;
+            }
+        }
+
+        // 5. 并行挂载子结点，每个父结点的子结点集合只由一个任务修改
+        IntStream.range(0, size).parallel().forEach((p) -> {
+            TreeNode<?> parent = nodes[p];
+            for (int k = offsets[p]; k < offsets[p + 1]; k++) {
+                parent.addChild(nodes[ordered[k]]);
+            }
+        });
 
-        // 如果设置的根节点标识不为默认的root，则修改根节点标识
-        if (!rootKey.equalsIgnoreCase(DEFAULT_ROOT_KEY)) {
-            tree.map.put(rootKey, tree.root);
-            tree.map.remove(DEFAULT_ROOT_KEY);
-            tree.rootKey = rootKey;
+        // 6. 父结点不存在的结点挂到root或记为孤立结点
+        for (int i = 0; i < size; i++) {
+            if (parentIndexes[i] < 0) {
+                if (parentIds[i] == null || minLevel == Long.MAX_VALUE || isLevel(levelGetter, nodes[i], minLevel)) {
+                    tree.root.addChild(nodes[i]);
+                } else {
+                    tree.orphans.add(nodes[i]);
+                }
+            }
+        }
+        // 成环的结点中至少有一个的父结点在其之后出现
+        for (int i = 0; i < size; i++) {
+            if (parentIndexes[i] > i) {
+                breakCycles(tree, size);
+                break;
+            }
         }
 
+        tree.changeRootKey(rootKey);
+        if (metrics != null) {
+            metrics.linked();
+            metrics.counts(nodeGroup, size, parentIdGetter != null, tree.root.getChildren().size(), tree.orphans.size(), 0);
+            metrics.finish(tree);
+        }
         return tree;
     }
 
@@ -209,22 +734,34 @@ public class Tree {
             subParentIdField = "ParentId";
         }
 
-        String parentKey = "";
+        Class<?> itemClass = subNodeList.get(0).getClass();
+        ItemAccessor idGetter = ItemAccessor.of(itemClass, subIdField);
+        ItemAccessor parentIdGetter = ItemAccessor.of(itemClass, subParentIdField);
+        int subGroup = NodeIndex.group(subNodeGroup);
+        int parentGroup = NodeIndex.group(parentNodeGroup);
+        this.index.reserve(subGroup, subNodeList.size());
+        TreeBuildMetrics metrics = TreeBuildMetrics.start("combine");
 
+        int dropped = 0;
         for (T item : subNodeList) {
             TreeNode<T> node = new TreeNode<>();
             node.setItem(item);
 
-            parentKey = parentNodeGroup + item.getClass().getMethod("get" + subParentIdField).invoke(item);
-
-            if (this.map.containsKey(parentKey)) {
-                this.map.get(parentKey).getChildren().add(node);
+            TreeNode<?> parent = this.index.get(parentGroup, parentIdGetter.apply(item));
+            if (parent != null) {
+                parent.addChild(node);
+            } else {
+                dropped++;
             }
 
-            String selfKey = subNodeGroup + item.getClass().getMethod("get" + subIdField).invoke(item);
-            this.map.put(selfKey, node);
+            this.index.put(subGroup, idGetter.apply(item), node);
+        }
+        this.modCount++;
+        if (metrics != null) {
+            metrics.linked();
+            metrics.counts(subNodeGroup, subNodeList.size(), true, 0, 0, dropped);
+            metrics.finish(this);
         }
-
     }
 
     /**
@@ -235,17 +772,872 @@ public class Tree {
      * @since 2020/3/6 12:38
      **/
     public void combine(List<Tree> subTreeList) {
+        combine(subTreeList, false);
+    }
+
+    /**
+     * 在已有树形结构上拼接子树
+     * <p>
+     * 先查找全部挂接结点（找不到时抛出异常，父树和子树都不会被修改），再按列表顺序把子树的结点索引合并到父树的索引（覆盖已存在的标识），
+     * 拼接N棵共M个结点的子树为O(N + M)；与原来一样，子树的根结点仍保留其子结点，子树的索引去掉根节点标识后仍可查到移到父树的结点
+     *
+     * @param subTreeList: 子树列表（子树的根节点标识即父树中挂接结点的标识，可为列表中先拼接的子树的结点）
+     * @param parallel:    是否并行移动子结点（挂到不同父结点的子树并行处理，挂到同一父结点的子树按列表顺序处理）
+     * @throws IllegalArgumentException: 父树中找不到子树根节点标识对应的结点
+     * @author : cgl
+     * @since 2026/10/17 14:50
+     **/
+    public void combine(List<Tree> subTreeList, boolean parallel) {
         if (subTreeList == null || subTreeList.size() == 0) {
             return;
         }
-        subTreeList.forEach((subTree) -> {
-            // 子树结点先全部合到父树
-            this.map.get(subTree.getRootKey()).getChildren().addAll(subTree.getRoot().getChildren());
-            // 子树的映射关系map也合并到父树的映射关系map
-            subTree.getMap().remove(subTree.getRootKey());
-            this.map.putAll(subTree.getMap());
-        });
+        TreeBuildMetrics metrics = TreeBuildMetrics.start("combine");
+        // 先查找全部挂接结点，不修改父树和子树，后面的子树可以挂在前面子树的结点上
+        TreeNode<?>[] parents = attachPoints(subTreeList);
+
+        // 子树的结点索引合并到父树的结点索引
+        for (Tree subTree : subTreeList) {
+            subTree.index.remove(subTree.getRootKey());
+            this.index.putAll(subTree.index);
+            subTree.modCount++;
+        }
+
+        if (metrics != null) {
+            metrics.indexed();
+        }
+
+        // 子树结点合到父树
+        if (!parallel || parents.length == 1) {
+            for (int i = 0; i < parents.length; i++) {
+                graftChildren(parents[i], subTreeList.get(i));
+            }
+        } else {
+            Map<TreeNode<?>, List<Tree>> byParent = new IdentityHashMap<>();
+            for (int i = 0; i < parents.length; i++) {
+                byParent.computeIfAbsent(parents[i], (parent) -> new ArrayList<>()).add(subTreeList.get(i));
+            }
+            byParent.entrySet().parallelStream().forEach((entry) -> entry.getValue().forEach((subTree) -> graftChildren(entry.getKey(), subTree)));
+        }
+        this.modCount++;
+        if (metrics != null) {
+            metrics.linked();
+            metrics.counts(null, subTreeList.size(), true, 0, 0, 0);
+            metrics.finish(this);
+        }
+    }
+
+    /**
+     * 增加结点（O(1)）
+     *
+     * @param nodeGroup:       结点组名
+     * @param id:              结点主键
+     * @param item:            元素
+     * @param parentNodeGroup: 父结点组名（为空时与nodeGroup相同）
+     * @param parentId:        父结点主键（为null时挂到根结点）
+     * @return org.zero.utils.tree.TreeNode: 新结点
+     * @throws IllegalArgumentException: 父结点不存在，或结点标识已存在
+     * @author : cgl
+     * @since 2026/10/17 14:36
+     **/
+    public <T> TreeNode<T> addNode(String nodeGroup, Object id, T item, String parentNodeGroup, Object parentId) {
+        return addChild(findParent(nodeGroup, parentNodeGroup, parentId), nodeGroup, id, item);
+    }
+
+    /**
+     * 在指定父结点下增加结点
+     *
+     * @throws IllegalArgumentException: 结点标识已存在
+     **/
+    <T> TreeNode<T> addChild(TreeNode<?> parent, String nodeGroup, Object id, T item) {
+        TreeNode<T> node = new TreeNode<>();
+        node.setItem(item);
+        if (this.index.putIfAbsent(NodeIndex.group(nodeGroup), id, node) != null) {
+            throw new IllegalArgumentException("结点已存在：" + nodeGroup + id);
+        }
+        parent.addChild(node);
+        this.modCount++;
+        return node;
+    }
+
+    /**
+     * 增加孤立结点（没有父结点，追加到orphans末尾）
+     *
+     * @throws IllegalArgumentException: 结点标识已存在
+     **/
+    <T> TreeNode<T> addOrphan(String nodeGroup, Object id, T item) {
+        TreeNode<T> node = new TreeNode<>();
+        node.setItem(item);
+        if (this.index.putIfAbsent(NodeIndex.group(nodeGroup), id, node) != null) {
+            throw new IllegalArgumentException("结点已存在：" + nodeGroup + id);
+        }
+        this.orphans.add(node);
+        this.modCount++;
+        return node;
+    }
+
+    /**
+     * 将结点（连同其子树）从父结点下摘除，作为孤立结点追加到orphans末尾
+     *
+     * @throws IllegalArgumentException: 结点不存在
+     **/
+    void orphanNode(String nodeGroup, Object id) {
+        TreeNode<?> node = this.index.get(NodeIndex.group(nodeGroup), id);
+        if (node == null || node == this.root) {
+            throw new IllegalArgumentException("结点不存在：" + nodeGroup + id);
+        }
+        detach(node);
+        this.orphans.add(node);
+        this.modCount++;
+    }
+
+    /**
+     * 删除结点及其子树，同时删除子树内所有结点的标识（O(子树结点数)）
+     *
+     * @param nodeGroup: 结点组名
+     * @param id:        结点主键
+     * @return org.zero.utils.tree.TreeNode: 被删除的子树的根结点，结点不存在时返回null
+     * @author : cgl
+     * @since 2026/10/17 14:36
+     **/
+    public TreeNode<?> removeNode(String nodeGroup, Object id) {
+        TreeNode<?> node = this.index.get(NodeIndex.group(nodeGroup), id);
+        if (node == null || node == this.root) {
+            return null;
+        }
+        removeSubtree(node);
+        return node;
+    }
+
+    /**
+     * 摘除结点并删除其子树内所有结点的标识
+     **/
+    void removeSubtree(TreeNode<?> node) {
+        detach(node);
+        // 显式栈遍历子树，删除结点标识
+        Deque<TreeNode<?>> stack = new ArrayDeque<>();
+        stack.push(node);
+        while (!stack.isEmpty()) {
+            TreeNode<?> current = stack.pop();
+            this.index.remove(current);
+            current.getChildren().forEach(stack::push);
+        }
+        this.modCount++;
+    }
+
+    /**
+     * 将结点（连同其子树）移动到新的父结点下，作为最后一个子结点（O(深度)）
+     *
+     * @param nodeGroup:       结点组名
+     * @param id:              结点主键
+     * @param parentNodeGroup: 新父结点组名（为空时与nodeGroup相同）
+     * @param parentId:        新父结点主键（为null时移动到根结点下）
+     * @throws IllegalArgumentException: 结点或新父结点不存在，或新父结点在该结点的子树内
+     * @author : cgl
+     * @since 2026/10/17 14:36
+     **/
+    public void moveNode(String nodeGroup, Object id, String parentNodeGroup, Object parentId) {
+        TreeNode<?> node = this.index.get(NodeIndex.group(nodeGroup), id);
+        if (node == null || node == this.root) {
+            throw new IllegalArgumentException("结点不存在：" + nodeGroup + id);
+        }
+        TreeNode<?> parent = findParent(nodeGroup, parentNodeGroup, parentId);
+        // 祖先数量不会超过结点总数，超过说明父子关系成环（如绕过Tree直接修改了子结点集合）
+        int limit = this.index.size();
+        for (TreeNode<?> ancestor = parent; ancestor != null; ancestor = ancestor.getParent()) {
+            if (ancestor == node) {
+                throw new IllegalArgumentException("不能将结点移动到其子树内：" + nodeGroup + id);
+            }
+            if (limit-- < 0) {
+                throw new IllegalStateException("父子关系成环：" + parentNodeGroup + parentId);
+            }
+        }
+        detach(node);
+        parent.addChild(node);
+        this.modCount++;
+    }
+
+    /**
+     * 替换结点的元素（O(1)）
+     *
+     * @param nodeGroup: 结点组名
+     * @param id:        结点主键
+     * @param item:      新元素
+     * @return boolean: 结点是否存在
+     * @author : cgl
+     * @since 2026/10/17 14:36
+     **/
+    @SuppressWarnings("unchecked")
+    public <T> boolean updateNode(String nodeGroup, Object id, T item) {
+        TreeNode<T> node = (TreeNode<T>) this.index.get(NodeIndex.group(nodeGroup), id);
+        if (node == null) {
+            return false;
+        }
+        node.setItem(item);
+        return true;
+    }
+
+    /**
+     * 冻结为紧凑树（结构数组形式，不可变），适合构建后长期只读驻留的树
+     *
+     * @return org.zero.utils.tree.CompactTree:
+     * @author : cgl
+     * @since 2026/10/17 14:34
+     **/
+    public CompactTree freeze() {
+        return CompactTree.of(this);
+    }
+
+    /**
+     * 从根结点开始先序遍历（非递归）
+     *
+     * @return java.lang.Iterable:
+     * @author : cgl
+     * @since 2026/10/17 14:47
+     **/
+    public Iterable<TreeNode<?>> preOrder() {
+        return TreeTraversal.preOrder(this.root);
+    }
+
+    /**
+     * 从根结点开始后序遍历（非递归）
+     *
+     * @return java.lang.Iterable:
+     * @author : cgl
+     * @since 2026/10/17 14:47
+     **/
+    public Iterable<TreeNode<?>> postOrder() {
+        return TreeTraversal.postOrder(this.root);
+    }
+
+    /**
+     * 从根结点开始广度优先遍历
+     *
+     * @return java.lang.Iterable:
+     * @author : cgl
+     * @since 2026/10/17 14:47
+     **/
+    public Iterable<TreeNode<?>> breadthFirst() {
+        return TreeTraversal.breadthFirst(this.root);
+    }
+
+    /**
+     * 以先序顺序遍历树（含根结点）的流，调用parallel()后按子树拆分并行处理
+     *
+     * @return java.util.stream.Stream:
+     * @author : cgl
+     * @since 2026/10/17 14:47
+     **/
+    public Stream<TreeNode<?>> stream() {
+        return StreamSupport.stream(TreeTraversal.spliterator(this.root, this.index.size()), false);
+    }
+
+    /**
+     * 自底向上汇总各结点的long值（结点数量多时用fork-join并行计算）
+     *
+     * @param value:    元素的值（根结点等元素为null的结点取identity）
+     * @param identity: 合并函数的单位元（如求和为0）
+     * @param combiner: 合并函数（满足结合律，如Long::sum）
+     * @return org.zero.utils.tree.TreeRollup.LongRollup:
+     * @author : cgl
+     * @since 2026/10/17 14:48
+     **/
+    public <T> TreeRollup.LongRollup rollupLong(ToLongFunction<? super T> value, long identity, LongBinaryOperator combiner) {
+        return TreeRollup.rollupLong(this, value, identity, combiner);
+    }
+
+    /**
+     * 自底向上汇总各结点的double值（结点数量多时用fork-join并行计算）
+     *
+     * @param value:    元素的值（根结点等元素为null的结点取identity）
+     * @param identity: 合并函数的单位元（如求和为0）
+     * @param combiner: 合并函数（满足结合律，如Double::sum）
+     * @return org.zero.utils.tree.TreeRollup.DoubleRollup:
+     * @author : cgl
+     * @since 2026/10/17 14:48
+     **/
+    public <T> TreeRollup.DoubleRollup rollupDouble(ToDoubleFunction<? super T> value, double identity, DoubleBinaryOperator combiner) {
+        return TreeRollup.rollupDouble(this, value, identity, combiner);
+    }
+
+    /**
+     * 按先序导出除根结点外的各结点为扁平行（带深度、兄弟序号、物化路径）
+     *
+     * @param key:      元素的主键取值函数（组成物化路径，如 /1/5/42）
+     * @param sink:     接收行的方法（并行导出时会被多个线程同时调用，须线程安全）
+     * @param parallel: 是否按兄弟子树并行导出（不同子树之间的输出顺序不确定）
+     * @author : cgl
+     * @since 2026/10/17 15:18
+     **/
+    public <T> void export(Function<? super T, ?> key, Consumer<? super TreeExport.Row> sink, boolean parallel) {
+        TreeExport.export(this, key, sink, parallel);
+    }
+
+    /**
+     * 为结点元素的文本创建检索索引（n-gram倒排索引，检索结果为命中结点及其祖先结点组成的裁剪视图）
+     *
+     * @param text: 元素的检索文本（返回null表示不检索该结点）
+     * @return org.zero.utils.tree.TreeSearchIndex:
+     * @author : cgl
+     * @since 2026/10/17 15:02
+     **/
+    public <T> TreeSearchIndex searchIndex(Function<? super T, ? extends CharSequence> text) {
+        return TreeSearchIndex.of(this, text);
+    }
+
+    /**
+     * 按元素的排序字段对每个结点的子结点（兄弟结点之间）稳定排序，每个元素只取一次值
+     *
+     * @param sortKey: 排序字段取值函数（比较规则同ItemComparator，整数字段按计数/基数排序）
+     * @author : cgl
+     * @since 2026/10/17 14:59
+     **/
+    @SuppressWarnings("unchecked")
+    public <T> void sortChildren(Function<? super T, ?> sortKey) {
+        reorderChildren(children -> ItemComparator.sort(children, node -> sortKey.apply((T) node.getItem())));
+    }
+
+    /**
+     * 按元素的long型排序字段对每个结点的子结点（兄弟结点之间）稳定排序，每个元素只取一次值，不装箱
+     *
+     * @param sortKey: 排序字段取值函数
+     * @author : cgl
+     * @since 2026/10/17 14:59
+     **/
+    @SuppressWarnings("unchecked")
+    public <T> void sortChildrenByLong(ToLongFunction<? super T> sortKey) {
+        reorderChildren(children -> ItemComparator.sortByLong(children, node -> sortKey.applyAsLong((T) node.getItem())));
+    }
+
+    /**
+     * 对子结点多于一个的结点，取出子结点排序后按新顺序放回
+     **/
+    private void reorderChildren(Consumer<List<TreeNode<?>>> sorter) {
+        // 先收集再排序，遍历过程中不修改子结点集合
+        List<TreeNode<?>> parents = new ArrayList<>();
+        for (TreeNode<?> node : TreeTraversal.preOrder(this.root)) {
+            if (node.children.size() > 1) {
+                parents.add(node);
+            }
+        }
+        for (TreeNode<?> parent : parents) {
+            List<TreeNode<?>> children = new ArrayList<>(parent.children);
+            sorter.accept(children);
+            parent.children.clear();
+            parent.children.addAll(children);
+        }
+        this.modCount++;
+    }
+
+    /**
+     * 按给定顺序重排结点的子结点（给定的结点须恰为该结点现有的全部子结点）
+     *
+     * @throws IllegalArgumentException: 给定的结点与现有子结点不一致
+     **/
+    void orderChildren(TreeNode<?> parent, List<TreeNode<?>> children) {
+        if (children.size() != parent.children.size()) {
+            throw new IllegalArgumentException("子结点数量不一致：" + children.size() + "，" + parent.children.size());
+        }
+        for (TreeNode<?> child : children) {
+            if (child == null || child.getParent() != parent) {
+                throw new IllegalArgumentException("结点不是该结点的子结点：" + child);
+            }
+        }
+        Set<TreeNode<?>> ordered = new LinkedHashSet<>(children);
+        if (ordered.size() != children.size()) {
+            throw new IllegalArgumentException("子结点重复");
+        }
+        parent.children = ordered;
+        this.modCount++;
+    }
+
+    /**
+     * 取得区间索引（先序编号，O(1)判断祖先关系、按连续区间取子树），树未修改时复用上次创建的索引，否则重新创建
+     *
+     * @return org.zero.utils.tree.TreeIntervalIndex:
+     * @author : cgl
+     * @since 2026/10/17 14:45
+     **/
+    public TreeIntervalIndex intervalIndex() {
+        TreeIntervalIndex current = this.intervalIndex;
+        if (current == null || !current.isValid()) {
+            current = TreeIntervalIndex.of(this);
+            this.intervalIndex = current;
+        }
+        return current;
+    }
+
+    /**
+     * 取得路径索引（最近公共祖先、距离、根结点到结点的路径，O(log n)），树未修改时复用上次创建的索引，否则重新创建
+     *
+     * @return org.zero.utils.tree.TreePathIndex:
+     * @author : cgl
+     * @since 2026/10/17 14:46
+     **/
+    public TreePathIndex pathIndex() {
+        TreePathIndex current = this.pathIndex;
+        if (current == null || !current.isValid()) {
+            current = TreePathIndex.of(this);
+            this.pathIndex = current;
+        }
+        return current;
+    }
+
+    public void setRoot(TreeNode<?> root) {
+        this.root = root;
+        this.modCount++;
+    }
+
+    /**
+     * 修改根节点标识（为空或为默认的root时不修改）
+     **/
+    private void changeRootKey(String rootKey) {
+        if (rootKey == null || "".equals(rootKey) || rootKey.equalsIgnoreCase(DEFAULT_ROOT_KEY)) {
+            return;
+        }
+        this.index.remove(NodeIndex.NAMED, DEFAULT_ROOT_KEY);
+        this.index.put(NodeIndex.NAMED, rootKey, this.root);
+        this.rootKey = rootKey;
+    }
+
+    /**
+     * 替换结点标识与结点的关系
+     *
+     * @param map: 结点标识（nodeGroup + id）与结点的map
+     **/
+    public void setMap(Map<String, TreeNode<?>> map) {
+        if (map == this.map) {
+            return;
+        }
+        this.index.clear();
+        if (map != null) {
+            map.forEach(this.index::put);
+        }
+        this.modCount++;
+    }
+
+    int modCount() {
+        return this.modCount;
+    }
+
+    /**
+     * 查找父结点，parentId为null时返回根结点
+     **/
+    private TreeNode<?> findParent(String nodeGroup, String parentNodeGroup, Object parentId) {
+        if (parentId == null) {
+            return this.root;
+        }
+        if (parentNodeGroup == null || "".equals(parentNodeGroup)) {
+            parentNodeGroup = nodeGroup;
+        }
+        TreeNode<?> parent = this.index.get(NodeIndex.group(parentNodeGroup), parentId);
+        if (parent == null) {
+            throw new IllegalArgumentException("父结点不存在：" + parentNodeGroup + parentId);
+        }
+        return parent;
+    }
+
+    /**
+     * 按列表顺序查找各子树的挂接结点：先在父树中查找，找不到时在列表中先拼接的子树中查找（后拼接的优先）
+     * <p>
+     * 先拼接的子树的标识在第一次找不到时才汇总到一个临时索引中（之后逐棵追加），不逐棵查找各子树的索引
+     *
+     * @throws IllegalArgumentException: 找不到挂接结点
+     **/
+    private TreeNode<?>[] attachPoints(List<Tree> subTreeList) {
+        TreeNode<?>[] parents = new TreeNode<?>[subTreeList.size()];
+        NodeIndex earlier = null;
+        int collected = 0;
+        for (int i = 0; i < parents.length; i++) {
+            String key = subTreeList.get(i).getRootKey();
+            TreeNode<?> parent = this.index.get(key);
+            if (parent == null && i > 0) {
+                if (earlier == null) {
+                    earlier = new NodeIndex();
+                }
+                for (; collected < i; collected++) {
+                    Tree subTree = subTreeList.get(collected);
+                    earlier.putAll(subTree.index);
+                    // 先拼接子树的根节点标识对应其挂接结点，子树根结点本身不会进入父树
+                    earlier.remove(subTree.getRootKey());
+                    earlier.put(subTree.getRootKey(), parents[collected]);
+                }
+                parent = earlier.get(key);
+            }
+            if (parent == null) {
+                throw new IllegalArgumentException("父结点不存在：" + key);
+            }
+            parents[i] = parent;
+        }
+        return parents;
+    }
+
+    /**
+     * 将子树根结点的子结点挂到父树的挂接结点下（子树根结点仍保留这些子结点）
+     **/
+    private static void graftChildren(TreeNode<?> parent, Tree subTree) {
+        TreeNode<?> subRoot = subTree.getRoot();
+        subRoot.getChildren().forEach(parent::addChild);
+    }
+
+    /**
+     * 将结点从父结点（或孤立结点列表）中摘除
+     *
+     * @throws IllegalStateException: 结点没有父结点也不是孤立结点（如绕过Tree直接加入了子结点集合），无法摘除
+     **/
+    private void detach(TreeNode<?> node) {
+        if (node.getParent() != null) {
+            node.getParent().removeChild(node);
+        } else if (!this.orphans.remove(node)) {
+            throw new IllegalStateException("结点不在父结点或孤立结点列表中，无法摘除：" + node.getItem());
+        }
+    }
+
+    /**
+     * 断开父子关系中的环：成环的结点（及挂在其下的结点）从root和孤立结点都不可达。
+     * 按索引顺序（即元素出现顺序）找到第一个不可达的结点，沿父结点向上找到环上的结点，断开其与父结点的关系并记为孤立结点，直到全部可达
+     *
+     * @param nodeCount: 除root外的结点总数
+     **/
+    private static void breakCycles(Tree tree, int nodeCount) {
+        Set<TreeNode<?>> reached = Collections.newSetFromMap(new IdentityHashMap<>());
+        int reachedCount = reach(tree.root, reached) - 1;
+        for (TreeNode<?> orphan : tree.orphans) {
+            reachedCount += reach(orphan, reached);
+        }
+        for (int position = 0; reachedCount < nodeCount && position < tree.index.capacity(); position++) {
+            TreeNode<?> node = tree.index.nodeAt(position);
+            if (node == null || reached.contains(node)) {
+                continue;
+            }
+            // 不可达的结点都有父结点，向上必然回到走过的结点，即环上的结点
+            Set<TreeNode<?>> path = Collections.newSetFromMap(new IdentityHashMap<>());
+            while (path.add(node)) {
+                node = node.getParent();
+            }
+            node.getParent().removeChild(node);
+            tree.orphans.add(node);
+            reachedCount += reach(node, reached);
+        }
+    }
+
+    /**
+     * 标记子树内的结点为可达
+     *
+     * @return int: 子树结点数量
+     **/
+    private static int reach(TreeNode<?> node, Set<TreeNode<?>> reached) {
+        int count = 0;
+        Deque<TreeNode<?>> stack = new ArrayDeque<>();
+        stack.push(node);
+        while (!stack.isEmpty()) {
+            TreeNode<?> current = stack.pop();
+            reached.add(current);
+            count++;
+            current.getChildren().forEach(stack::push);
+        }
+        return count;
+    }
+
+    /**
+     * buildUnordered的单次遍历实现：结点元素经投影后存入，找不到父结点时记下层级，遍历结束后不再访问数据源元素
+     **/
+    private static <T> Tree assemble(Iterator<T> source, int expectedSize, String nodeGroup, String rootKey, Function<? super T, ?> idGetter, Function<? super T, ?> parentIdGetter, Function<? super T, ?> levelGetter, Function<? super T, ?> projection) {
+        if (source == null || !source.hasNext()) {
+            return create(expectedSize);
+        }
+        Assembler assembler = new Assembler(expectedSize, nodeGroup, parentIdGetter != null);
+        while (source.hasNext()) {
+            T element = source.next();
+            assembler.add(projection == null ? element : projection.apply(element),
+                    idGetter.apply(element),
+                    parentIdGetter == null ? null : parentIdGetter.apply(element),
+                    levelGetter == null ? null : levelGetter.apply(element));
+        }
+        return assembler.finish(rootKey);
+    }
+
+    /**
+     * buildUnordered的组装器：逐个加入元素，先登记自身、把等待该结点的子结点挂上，再挂到已出现的父结点下，父结点尚未出现的先挂起；
+     * finish时父结点始终未出现的结点挂到root或记为孤立结点。整数主键、父主键、层级可按long直接加入（不装箱，如流式读取JSON时）
+     **/
+    static final class Assembler {
+
+        /**
+         * 挂起结点的父主键类型：没有父主键、整数、其它
+         **/
+        private final static byte PARENT_NONE = 0;
+        private final static byte PARENT_NUMBER = 1;
+        private final static byte PARENT_OTHER = 2;
+
+        /**
+         * 挂起结点带有整数层级的标记位
+         **/
+        private final static byte HAS_LEVEL = 4;
+
+        private final Tree tree;
+
+        private final int expectedSize;
+
+        private final boolean hasParents;
+
+        private final TreeBuildMetrics metrics = TreeBuildMetrics.start("buildUnordered");
+
+        private String nodeGroup;
+
+        private int group = NodeIndex.NAMED;
+
+        private int itemCount;
+
+        /**
+         * 父结点尚未出现的结点：整数父主键 -> pendingLists中的下标，其它父主键（已规范化） -> 等待挂载的子结点（按出现顺序）
+         **/
+        private final LongIntMap pendingNumbers = new LongIntMap(16);
+        private final List<List<TreeNode<?>>> pendingLists = new ArrayList<>();
+        private final HashMap<Object, List<TreeNode<?>>> pendingOthers = new HashMap<>();
+
+        /**
+         * 出现时找不到父结点的结点，及其父主键类型与层级标记、整数父主键、其它父主键、层级
+         **/
+        private TreeNode<?>[] unresolved = new TreeNode<?>[16];
+        private byte[] unresolvedFlags = new byte[16];
+        private long[] unresolvedNumbers = new long[16];
+        private Object[] unresolvedOthers = new Object[16];
+        private long[] unresolvedLevels = new long[16];
+        private int unresolvedCount;
+
+        private long minLevel = Long.MAX_VALUE;
+
+        private boolean mayCycle;
+
+        /**
+         * @param expectedSize: 预计元素数量（用于预分配索引）
+         * @param nodeGroup:    结点组名（为空时取第一个元素的类名）
+         * @param hasParents:   元素是否带有父主键（用于构建指标）
+         **/
+        Assembler(int expectedSize, String nodeGroup, boolean hasParents) {
+            this.tree = create(expectedSize);
+            this.expectedSize = expectedSize;
+            this.nodeGroup = nodeGroup;
+            this.hasParents = hasParents;
+        }
+
+        /**
+         * 加入元素（主键、父主键为整数时转为long加入，层级为Integer或Long时参与最小层级的判断）
+         **/
+        void add(Object item, Object id, Object parentId, Object level) {
+            boolean hasLevel = level instanceof Integer || level instanceof Long;
+            long levelValue = hasLevel ? ((Number) level).longValue() : 0;
+            TreeNode<Object> node = node(item);
+            if (NodeIndex.isLong(id)) {
+                register(node, NodeIndex.toLong(id));
+            } else if (tree.index.putIfAbsent(group, id, node) == null) {
+                attachWaiting(node, pendingOthers.isEmpty() ? null : pendingOthers.remove(NodeIndex.normalize(id)));
+            }
+            if (parentId == null) {
+                attach(node, null, PARENT_NONE, 0, null, hasLevel, levelValue);
+            } else if (NodeIndex.isLong(parentId)) {
+                long number = NodeIndex.toLong(parentId);
+                attach(node, tree.index.get(group, number), PARENT_NUMBER, number, null, hasLevel, levelValue);
+            } else {
+                attach(node, tree.index.get(group, parentId), PARENT_OTHER, 0, NodeIndex.normalize(parentId), hasLevel, levelValue);
+            }
+        }
+
+        /**
+         * 加入整数主键的元素（不装箱）
+         *
+         * @param item:      元素
+         * @param id:        主键
+         * @param hasParent: 是否有父主键（为false时parentId被忽略）
+         * @param parentId:  父主键
+         * @param hasLevel:  是否有层级（为false时level被忽略）
+         * @param level:     层级
+         **/
+        void add(Object item, long id, boolean hasParent, long parentId, boolean hasLevel, long level) {
+            TreeNode<Object> node = node(item);
+            register(node, id);
+            if (hasParent) {
+                attach(node, tree.index.get(group, parentId), PARENT_NUMBER, parentId, null, hasLevel, level);
+            } else {
+                attach(node, null, PARENT_NONE, 0, null, hasLevel, level);
+            }
+        }
+
+        /**
+         * 处理父结点始终未出现的结点，返回构建好的树
+         **/
+        Tree finish(String rootKey) {
+            if (itemCount == 0) {
+                return tree;
+            }
+            int rootAttached = 0;
+            for (int i = 0; i < unresolvedCount; i++) {
+                int kind = unresolvedFlags[i] & 3;
+                if (kind == PARENT_NUMBER && pendingNumbers.get(unresolvedNumbers[i]) == LongIntMap.MISSING
+                        || kind == PARENT_OTHER && !pendingOthers.containsKey(unresolvedOthers[i])) {
+                    // 父结点后来出现，已经挂上
+                    continue;
+                }
+                boolean hasLevel = (unresolvedFlags[i] & HAS_LEVEL) != 0;
+                if (kind == PARENT_NONE || minLevel == Long.MAX_VALUE || hasLevel && unresolvedLevels[i] == minLevel) {
+                    tree.root.addChild(unresolved[i]);
+                    rootAttached++;
+                } else {
+                    tree.orphans.add(unresolved[i]);
+                }
+            }
+            if (mayCycle) {
+                breakCycles(tree, itemCount);
+            }
+
+            tree.changeRootKey(rootKey);
+            if (metrics != null) {
+                metrics.linked();
+                metrics.counts(nodeGroup, itemCount, hasParents, rootAttached, tree.orphans.size(), 0);
+                metrics.finish(tree);
+            }
+            return tree;
+        }
+
+        private TreeNode<Object> node(Object item) {
+            itemCount++;
+            if (group == NodeIndex.NAMED) {
+                // 结点组名为空时，取第一个结点元素的类名
+                if (nodeGroup == null || "".equals(nodeGroup)) {
+                    nodeGroup = item.getClass().getSimpleName().toLowerCase().replace("dto", "");
+                }
+                group = NodeIndex.group(nodeGroup);
+                tree.index.reserve(group, expectedSize);
+            }
+            TreeNode<Object> node = new TreeNode<>();
+            node.setItem(item);
+            return node;
+        }
+
+        /**
+         * 登记整数主键的结点，并把等待该结点的子结点挂上（主键重复时以先出现的结点为准）
+         **/
+        private void register(TreeNode<?> node, long id) {
+            if (tree.index.putIfAbsent(group, id, node) == null && pendingNumbers.size() > 0) {
+                int slot = pendingNumbers.remove(id);
+                if (slot != LongIntMap.MISSING) {
+                    attachWaiting(node, pendingLists.set(slot, null));
+                }
+            }
+        }
+
+        private static void attachWaiting(TreeNode<?> node, List<TreeNode<?>> waiting) {
+            if (waiting != null) {
+                waiting.forEach(node::addChild);
+            }
+        }
+
+        /**
+         * 挂到父结点下，父结点不存在（或为自身）时挂起
+         **/
+        private void attach(TreeNode<?> node, TreeNode<?> parent, byte kind, long parentNumber, Object parentOther, boolean hasLevel, long level) {
+            if (hasLevel) {
+                minLevel = Math.min(minLevel, level);
+            }
+            if (parent != null && parent != node) {
+                // 已有子结点的结点挂到已有结点下，父结点可能在其子树内（如 A→B、B→A）
+                mayCycle |= !node.getChildren().isEmpty();
+                parent.addChild(node);
+                return;
+            }
+            if (unresolvedCount == unresolved.length) {
+                int capacity = unresolvedCount << 1;
+                unresolved = Arrays.copyOf(unresolved, capacity);
+                unresolvedFlags = Arrays.copyOf(unresolvedFlags, capacity);
+                unresolvedNumbers = Arrays.copyOf(unresolvedNumbers, capacity);
+                unresolvedOthers = Arrays.copyOf(unresolvedOthers, capacity);
+                unresolvedLevels = Arrays.copyOf(unresolvedLevels, capacity);
+            }
+            int i = unresolvedCount++;
+            unresolved[i] = node;
+            unresolvedFlags[i] = (byte) (kind | (hasLevel ? HAS_LEVEL : 0));
+            unresolvedNumbers[i] = parentNumber;
+            unresolvedOthers[i] = parentOther;
+            unresolvedLevels[i] = level;
+            if (kind == PARENT_NUMBER) {
+                int slot = pendingNumbers.get(parentNumber);
+                if (slot == LongIntMap.MISSING) {
+                    slot = pendingLists.size();
+                    pendingLists.add(new ArrayList<>());
+                    pendingNumbers.put(parentNumber, slot);
+                }
+                pendingLists.get(slot).add(node);
+            } else if (kind == PARENT_OTHER) {
+                pendingOthers.computeIfAbsent(parentOther, (key) -> new ArrayList<>()).add(node);
+            }
+        }
+    }
+
+    /**
+     * 查找结果集的列，不存在时返回-1
+     **/
+    private static int findColumn(ResultSet resultSet, String column) {
+        try {
+            return resultSet.findColumn(column);
+        } catch (SQLException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * 遍历结果集时包装SQLException
+     **/
+    private static final class RowException extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+
+        private RowException(SQLException cause) {
+            super(cause);
+        }
+
+        @Override
+        public synchronized SQLException getCause() {
+            return (SQLException) super.getCause();
+        }
+    }
+
+    /**
+     * 由已有的根结点和结点索引创建树（解码等场景使用，索引中须包含根节点标识）
+     **/
+    static Tree of(TreeNode<?> root, String rootKey, NodeIndex index) {
+        Tree tree = new Tree(16);
+        tree.root = root;
+        tree.rootKey = rootKey;
+        tree.index = index;
+        tree.map = index.asMap();
+        return tree;
+    }
+
+    /**
+     * 创建只有根结点的树，索引按元素数量预分配
+     **/
+    private static Tree create(List<?> list) {
+        return create(list == null ? 16 : list.size() + 1);
+    }
+
+    private static Tree create(int expectedSize) {
+        Tree tree = new Tree(expectedSize);
+        tree.root = new TreeNode<>();
+        tree.rootKey = DEFAULT_ROOT_KEY;
+        tree.index.put(NodeIndex.NAMED, DEFAULT_ROOT_KEY, tree.root);
+        return tree;
+    }
+
+    /**
+     * 结点元素的层级是否等于指定层级
+     **/
+    @SuppressWarnings("unchecked")
+    private static <T> boolean isLevel(Function<? super T, ?> levelGetter, TreeNode<?> node, long level) {
+        return isLevel(levelGetter.apply((T) node.getItem()), level);
+    }
 
+    private static boolean isLevel(Object value, long level) {
+        return (value instanceof Integer || value instanceof Long) && ((Number) value).longValue() == level;
     }
 
 }
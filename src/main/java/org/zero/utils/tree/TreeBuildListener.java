@@ -0,0 +1,31 @@
+package org.zero.utils.tree;
+
+/**
+ * 树构建监听器
+ * <p>
+ * 通过Tree.setBuildListener注册（全局一个），build、buildUnordered、buildParallel、combine完成后回调；
+ * 未注册时构建过程不计时、不统计树的形状，开销只有一次volatile读。回调在构建线程中同步执行，实现应尽量轻量且线程安全
+ *
+ * @author : cgl
+ * @version : 1.0
+ * @since : 2026/10/17 15:08
+ **/
+public interface TreeBuildListener {
+
+    /**
+     * 构建（或拼接）完成
+     *
+     * @param metrics: 本次构建的统计信息
+     **/
+    void onBuilt(TreeBuildMetrics metrics);
+
+    /**
+     * 构建过程中的提示（如元素不存在层级字段）
+     *
+     * @param operation: 操作（build、buildUnordered、buildParallel、combine）
+     * @param message:   提示信息
+     **/
+    default void onWarning(String operation, String message) {
+    }
+
+}
@@ -0,0 +1,194 @@
+package org.zero.utils.tree;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 一次树构建（或拼接）的统计信息
+ * <p>
+ * 阶段耗时：sort为按层级排序；index为建结点、取键、登记索引；link为挂载到父结点（含判断挂到root还是作为孤立结点）。
+ * 顺序构建（build、buildUnordered、combine元素列表）在同一次遍历中完成登记索引与挂载，全部计入link；
+ * 深度、最大子结点数只在监听器存在时于构建结束后遍历一次树得到，估算内存按索引大小计算
+ *
+ * @author : cgl
+ * @version : 1.0
+ * @since : 2026/10/17 15:08
+ **/
+@Getter
+public final class TreeBuildMetrics {
+
+    /**
+     * 每个结点的估算字节数（TreeNode + 子结点LinkedHashSet及其在父结点集合中的条目，按64位JVM、压缩指针估算，不含元素）
+     **/
+    private final static long NODE_BYTES = 144;
+
+    /**
+     * 索引中每个结点的估算字节数（结点、组、主键数组及主键哈希表的槽位）
+     **/
+    private final static long INDEX_SLOT_BYTES = 40;
+
+    /**
+     * 操作（build、buildUnordered、buildParallel、combine）
+     **/
+    private final String operation;
+
+    private String nodeGroup;
+
+    /**
+     * 输入元素（或拼接的子树）数量
+     **/
+    private int itemCount;
+
+    /**
+     * 元素是否有父主键（没有时所有元素都挂到root下）
+     **/
+    private boolean parentFieldPresent = true;
+
+    /**
+     * 本次挂到root下的结点数量
+     **/
+    private int rootAttachedCount;
+
+    /**
+     * 本次记为孤立结点的数量（父结点不存在且不属于最小层级）
+     **/
+    private int orphanCount;
+
+    /**
+     * 本次既未挂到树上、也未记为孤立结点的元素数量（只能通过索引找到）
+     **/
+    private int droppedCount;
+
+    private long sortNanos;
+
+    private long indexNanos;
+
+    private long linkNanos;
+
+    private long totalNanos;
+
+    /**
+     * 构建后从根结点可达的结点数量（含根结点）
+     **/
+    private int nodeCount;
+
+    /**
+     * 构建后从根结点可达的最大深度（根结点为0）
+     **/
+    private int maxDepth;
+
+    /**
+     * 构建后单个结点的最大子结点数量
+     **/
+    private int maxFanOut;
+
+    /**
+     * 构建后树结构的估算内存字节数（不含元素本身）
+     **/
+    private long estimatedRetainedBytes;
+
+    @Getter(AccessLevel.NONE)
+    private final TreeBuildListener listener;
+
+    @Getter(AccessLevel.NONE)
+    private final long start;
+
+    @Getter(AccessLevel.NONE)
+    private long mark;
+
+    private TreeBuildMetrics(TreeBuildListener listener, String operation) {
+        this.listener = listener;
+        this.operation = operation;
+        this.start = System.nanoTime();
+        this.mark = start;
+    }
+
+    /**
+     * 开始统计，未注册监听器时返回null（调用方据此跳过全部统计）
+     **/
+    static TreeBuildMetrics start(String operation) {
+        TreeBuildListener listener = Tree.getBuildListener();
+        return listener == null ? null : new TreeBuildMetrics(listener, operation);
+    }
+
+    /**
+     * 通知构建提示（未注册监听器时写入slf4j日志，与原先直接输出提示保持一致）
+     **/
+    static void warn(String operation, String message) {
+        TreeBuildListener listener = Tree.getBuildListener();
+        if (listener != null) {
+            listener.onWarning(operation, message);
+        } else {
+            LoggerFactory.getLogger(Tree.class).warn("{}：{}", operation, message);
+        }
+    }
+
+    void sorted() {
+        sortNanos += lap();
+    }
+
+    void indexed() {
+        indexNanos += lap();
+    }
+
+    void linked() {
+        linkNanos += lap();
+    }
+
+    void counts(String nodeGroup, int itemCount, boolean parentFieldPresent, int rootAttachedCount, int orphanCount, int droppedCount) {
+        this.nodeGroup = nodeGroup;
+        this.itemCount = itemCount;
+        this.parentFieldPresent = parentFieldPresent;
+        this.rootAttachedCount = rootAttachedCount;
+        this.orphanCount = orphanCount;
+        this.droppedCount = droppedCount;
+    }
+
+    /**
+     * 统计树的形状并回调监听器
+     **/
+    void finish(Tree tree) {
+        totalNanos = System.nanoTime() - start;
+        long nodes = 0;
+        if (tree.getRoot() != null) {
+            // 按层遍历，层数即深度
+            List<TreeNode<?>> level = new ArrayList<>();
+            level.add(tree.getRoot());
+            for (int depth = 0; !level.isEmpty(); depth++) {
+                List<TreeNode<?>> next = new ArrayList<>();
+                for (TreeNode<?> node : level) {
+                    maxFanOut = Math.max(maxFanOut, node.getChildren().size());
+                    next.addAll(node.getChildren());
+                }
+                nodes += level.size();
+                maxDepth = depth;
+                level = next;
+            }
+        }
+        nodeCount = (int) nodes;
+        // 索引中包含孤立结点及其子结点，直接按索引大小估算
+        estimatedRetainedBytes = (long) tree.getIndex().size() * (NODE_BYTES + INDEX_SLOT_BYTES);
+        listener.onBuilt(this);
+    }
+
+    private long lap() {
+        long now = System.nanoTime();
+        long elapsed = now - mark;
+        mark = now;
+        return elapsed;
+    }
+
+    @Override
+    public String toString() {
+        return "TreeBuildMetrics{operation=" + operation + ", nodeGroup=" + nodeGroup + ", itemCount=" + itemCount
+                + ", parentFieldPresent=" + parentFieldPresent + ", rootAttachedCount=" + rootAttachedCount + ", orphanCount=" + orphanCount
+                + ", droppedCount=" + droppedCount + ", sortNanos=" + sortNanos + ", indexNanos=" + indexNanos + ", linkNanos=" + linkNanos
+                + ", totalNanos=" + totalNanos + ", nodeCount=" + nodeCount + ", maxDepth=" + maxDepth + ", maxFanOut=" + maxFanOut
+                + ", estimatedRetainedBytes=" + estimatedRetainedBytes + "}";
+    }
+
+}
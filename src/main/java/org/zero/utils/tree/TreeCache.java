@@ -0,0 +1,347 @@
+package org.zero.utils.tree;
+
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToLongFunction;
+
+/**
+ * 已构建树的缓存
+ * <p>
+ * 以调用方提供的数据集标识 + 数据版本为键缓存构建好的树，数据版本变化时重新构建并替换旧版本；
+ * 按权重（默认每棵树权重为1，即按数量）做LRU淘汰，支持过期时间；同一数据集同一版本并发未命中时只构建一次，其它线程等待构建结果。
+ * 命中时只读并发Map、记录访问时间，不加锁；放入、淘汰时加锁，按访问时间淘汰最久未访问的项，单棵权重超过上限的树不缓存。
+ * 缓存的树被多个调用方共享，取出后应只读使用（需要修改时请自行重新构建）
+ *
+ * @author : cgl
+ * @version : 1.0
+ * @since : 2026/10/17 14:39
+ **/
+public class TreeCache {
+
+    /**
+     * 按结点数量计算权重
+     **/
+    public final static ToLongFunction<Tree> NODE_COUNT = (tree) -> tree.getIndex().size();
+
+    private final long maxWeight;
+
+    private final long ttlNanos;
+
+    private final ToLongFunction<Tree> weigher;
+
+    /**
+     * 数据集标识 -> 缓存项（命中时不加锁读取，修改时在lock内进行）
+     **/
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * 放入、移除、淘汰缓存项及更新总权重时持有的锁
+     **/
+    private final Object lock = new Object();
+
+    private long totalWeight;
+
+    /**
+     * 正在构建的（数据集标识, 版本）
+     **/
+    private final ConcurrentHashMap<Key, CompletableFuture<Tree>> loading = new ConcurrentHashMap<>();
+
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder loadSuccessCount = new LongAdder();
+    private final LongAdder loadFailureCount = new LongAdder();
+    private final LongAdder totalLoadTime = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+
+    /**
+     * @param maxSize: 最多缓存的树数量
+     **/
+    public TreeCache(long maxSize) {
+        this(maxSize, 0, null);
+    }
+
+    /**
+     * @param maxWeight:  最大总权重
+     * @param ttlMillis:  过期时间（毫秒，小于等于0表示不过期）
+     * @param weigher:    权重计算函数（为null时每棵树权重为1，可使用NODE_COUNT按结点数量计算）
+     **/
+    public TreeCache(long maxWeight, long ttlMillis, ToLongFunction<Tree> weigher) {
+        this.maxWeight = maxWeight;
+        this.ttlNanos = ttlMillis <= 0 ? 0 : ttlMillis * 1000000L;
+        this.weigher = weigher == null ? (tree) -> 1L : weigher;
+    }
+
+    /**
+     * 取得缓存的树，未命中（不存在、版本不同或已过期）时调用loader构建
+     *
+     * @param datasetKey: 数据集标识
+     * @param version:    数据版本
+     * @param loader:     构建树的方法（如 () -> Tree.build(list, nodeGroup, rootKey)）
+     * @return org.zero.utils.tree.Tree:
+     * @throws Exception: loader抛出的异常（构建失败不缓存）
+     * @author : cgl
+     * @since 2026/10/17 14:39
+     **/
+    public Tree get(String datasetKey, long version, Callable<Tree> loader) throws Exception {
+        Tree tree = getIfPresent(datasetKey, version);
+        if (tree != null) {
+            return tree;
+        }
+        missCount.increment();
+
+        Key key = new Key(datasetKey, version);
+        CompletableFuture<Tree> future = new CompletableFuture<>();
+        CompletableFuture<Tree> existing = loading.putIfAbsent(key, future);
+        if (existing != null) {
+            // 其它线程正在构建同一版本，等待其结果
+            try {
+                return existing.get();
+            } catch (ExecutionException e) {
+                throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+            }
+        }
+
+        long start = System.nanoTime();
+        try {
+            // 等待期间其它线程可能刚好构建完成
+            tree = lookup(datasetKey, version);
+            if (tree != null) {
+                future.complete(tree);
+                return tree;
+            }
+            tree = loader.call();
+            totalLoadTime.add(System.nanoTime() - start);
+            loadSuccessCount.increment();
+            put(datasetKey, version, tree);
+            future.complete(tree);
+            return tree;
+        } catch (Exception | Error e) {
+            totalLoadTime.add(System.nanoTime() - start);
+            loadFailureCount.increment();
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(key, future);
+        }
+    }
+
+    /**
+     * 取得缓存的树，未命中时返回null（不计入未命中次数）
+     **/
+    public Tree getIfPresent(String datasetKey, long version) {
+        Tree tree = lookup(datasetKey, version);
+        if (tree != null) {
+            hitCount.increment();
+        }
+        return tree;
+    }
+
+    /**
+     * 放入树（替换该数据集已缓存的其它版本）；树的权重超过上限时不缓存，只移除该数据集已缓存的旧版本
+     **/
+    public void put(String datasetKey, long version, Tree tree) {
+        Entry entry = new Entry(version, tree, weigher.applyAsLong(tree), System.nanoTime());
+        synchronized (lock) {
+            Entry old = entries.get(datasetKey);
+            // 并发构建了不同版本时，保留较新的版本
+            if (old != null && old.version > version && !isExpired(old)) {
+                return;
+            }
+            if (entry.weight > maxWeight) {
+                if (old != null) {
+                    entries.remove(datasetKey);
+                    totalWeight -= old.weight;
+                }
+                return;
+            }
+            entries.put(datasetKey, entry);
+            totalWeight += entry.weight - (old == null ? 0 : old.weight);
+            evict(entry);
+        }
+    }
+
+    public void invalidate(String datasetKey) {
+        synchronized (lock) {
+            Entry old = entries.remove(datasetKey);
+            if (old != null) {
+                totalWeight -= old.weight;
+            }
+        }
+    }
+
+    public void invalidateAll() {
+        synchronized (lock) {
+            entries.clear();
+            totalWeight = 0;
+        }
+    }
+
+    /**
+     * 当前缓存的树数量
+     **/
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * 统计信息
+     **/
+    public Stats stats() {
+        return new Stats(hitCount.sum(), missCount.sum(), loadSuccessCount.sum(), loadFailureCount.sum(), totalLoadTime.sum(), evictionCount.sum());
+    }
+
+    /**
+     * 淘汰过期项，再按访问时间淘汰最久未访问的项（不淘汰刚放入的项），直到总权重不超过上限（在lock内调用）
+     **/
+    private void evict(Entry added) {
+        if (ttlNanos > 0) {
+            for (Map.Entry<String, Entry> item : entries.entrySet()) {
+                if (isExpired(item.getValue()) && entries.remove(item.getKey(), item.getValue())) {
+                    totalWeight -= item.getValue().weight;
+                    evictionCount.increment();
+                }
+            }
+        }
+        if (totalWeight <= maxWeight) {
+            return;
+        }
+        List<Map.Entry<String, Entry>> candidates = new ArrayList<>(entries.entrySet());
+        candidates.sort(Comparator.comparingLong((item) -> item.getValue().accessTime));
+        for (Map.Entry<String, Entry> item : candidates) {
+            if (totalWeight <= maxWeight) {
+                break;
+            }
+            if (item.getValue() != added && entries.remove(item.getKey(), item.getValue())) {
+                totalWeight -= item.getValue().weight;
+                evictionCount.increment();
+            }
+        }
+    }
+
+    private Tree lookup(String datasetKey, long version) {
+        Entry entry = entries.get(datasetKey);
+        if (entry == null || entry.version != version || isExpired(entry)) {
+            return null;
+        }
+        entry.accessTime = System.nanoTime();
+        return entry.tree;
+    }
+
+    private boolean isExpired(Entry entry) {
+        return ttlNanos > 0 && System.nanoTime() - entry.loadTime > ttlNanos;
+    }
+
+    /**
+     * 缓存统计信息
+     **/
+    @Getter
+    public static final class Stats {
+
+        private final long hitCount;
+
+        private final long missCount;
+
+        private final long loadSuccessCount;
+
+        private final long loadFailureCount;
+
+        /**
+         * 累计构建耗时（纳秒）
+         **/
+        private final long totalLoadTime;
+
+        private final long evictionCount;
+
+        private Stats(long hitCount, long missCount, long loadSuccessCount, long loadFailureCount, long totalLoadTime, long evictionCount) {
+            this.hitCount = hitCount;
+            this.missCount = missCount;
+            this.loadSuccessCount = loadSuccessCount;
+            this.loadFailureCount = loadFailureCount;
+            this.totalLoadTime = totalLoadTime;
+            this.evictionCount = evictionCount;
+        }
+
+        public double hitRate() {
+            long requests = hitCount + missCount;
+            return requests == 0 ? 1.0 : (double) hitCount / requests;
+        }
+
+        /**
+         * 平均构建耗时（纳秒）
+         **/
+        public double averageLoadPenalty() {
+            long loads = loadSuccessCount + loadFailureCount;
+            return loads == 0 ? 0.0 : (double) totalLoadTime / loads;
+        }
+
+        @Override
+        public String toString() {
+            return "Stats{hitCount=" + hitCount + ", missCount=" + missCount + ", loadSuccessCount=" + loadSuccessCount
+                    + ", loadFailureCount=" + loadFailureCount + ", totalLoadTime=" + totalLoadTime + ", evictionCount=" + evictionCount + "}";
+        }
+    }
+
+    private static final class Entry {
+
+        private final long version;
+
+        private final Tree tree;
+
+        private final long weight;
+
+        private final long loadTime;
+
+        /**
+         * 最近访问时间（命中时不加锁更新，淘汰时按其排序）
+         **/
+        private volatile long accessTime;
+
+        private Entry(long version, Tree tree, long weight, long loadTime) {
+            this.version = version;
+            this.tree = tree;
+            this.weight = weight;
+            this.loadTime = loadTime;
+            this.accessTime = loadTime;
+        }
+    }
+
+    private static final class Key {
+
+        private final String datasetKey;
+
+        private final long version;
+
+        private Key(String datasetKey, long version) {
+            this.datasetKey = datasetKey;
+            this.version = version;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return version == other.version && Objects.equals(datasetKey, other.datasetKey);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(datasetKey, version);
+        }
+    }
+
+}
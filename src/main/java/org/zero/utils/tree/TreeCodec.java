@@ -0,0 +1,509 @@
+package org.zero.utils.tree;
+
+import org.zero.utils.support.ByteUtil;
+
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 树的二进制编解码
+ * <p>
+ * 用于在服务结点之间传输构建好的树，比JSON更小、编解码更快：结点按先序排列，拓扑只记录每个结点的子结点数量，
+ * 结点数量、标识、长度等均为变长整数（LEB128，有符号数先做zigzag），元素由可插拔的ItemSerializer转换为字节；
+ * 文件头的定长字段按ByteUtil.Mode指定的字节序写入，解码时根据文件标识自动识别字节序。
+ * 只编码从根结点可达的结点（不含orphans），非整数主键按字符串保存；解码时只查找本JVM已登记的结点组，
+ * 未登记的结点组不会被登记，其标识按旧字符串标识（组名 + 主键）存放
+ * <p>
+ * 格式：标识(4) | 版本(1) | 结点数量(4) | 根节点标识 | 结点组名表 | 各结点{标识数量, 标识..., 元素, 子结点数量}
+ *
+ * @author : cgl
+ * @version : 1.0
+ * @since : 2026/10/17 14:55
+ **/
+public class TreeCodec<T> {
+
+    /**
+     * 标识 "TRBC"
+     **/
+    private final static int MAGIC = 0x54524243;
+
+    private final static int FORMAT_VERSION = 1;
+
+    /**
+     * 标识类型：整数主键、其它主键（按字符串保存）
+     **/
+    private final static int KEY_NUMBER = 0;
+    private final static int KEY_STRING = 1;
+
+    /**
+     * 从输入流解码时按声明的数量、长度预先分配的上限
+     **/
+    private final static int STREAM_CAPACITY = 1 << 16;
+
+    private final ItemSerializer<T> serializer;
+
+    private final ByteUtil.Mode mode;
+
+    /**
+     * @param serializer: 元素序列化器（大端模式）
+     **/
+    public TreeCodec(ItemSerializer<T> serializer) {
+        this(serializer, ByteUtil.Mode.BIG_ENDIAN);
+    }
+
+    /**
+     * @param serializer: 元素序列化器
+     * @param mode:       文件头定长字段的字节序
+     **/
+    public TreeCodec(ItemSerializer<T> serializer, ByteUtil.Mode mode) {
+        this.serializer = serializer;
+        this.mode = mode == null ? ByteUtil.Mode.BIG_ENDIAN : mode;
+    }
+
+    /**
+     * 编码为字节数组
+     *
+     * @param tree: 树
+     * @return byte[]:
+     * @author : cgl
+     * @since 2026/10/17 14:55
+     **/
+    public byte[] encode(Tree tree) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            encode(tree, out);
+        } catch (IOException e) {
+            // ByteArrayOutputStream不会抛出IOException
+            throw new IllegalStateException(e);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * 编码到输出流（边编码边写出，不关闭输出流）
+     *
+     * @param tree: 树
+     * @param out:  输出流
+     * @author : cgl
+     * @since 2026/10/17 14:55
+     **/
+    public void encode(Tree tree, OutputStream out) throws IOException {
+        Output output = new Output(out, null);
+        encode(tree, output);
+        output.flush();
+    }
+
+    /**
+     * 编码到缓冲区（从position开始写，写完后position位于末尾）
+     *
+     * @param tree:   树
+     * @param buffer: 缓冲区
+     * @throws java.nio.BufferOverflowException: 缓冲区剩余空间不足
+     * @author : cgl
+     * @since 2026/10/17 14:55
+     **/
+    public void encode(Tree tree, ByteBuffer buffer) {
+        try {
+            encode(tree, new Output(null, buffer));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 从输入流解码（边读取边解码，只读取该树的字节，因此按字节读取，请传入带缓冲的输入流）
+     *
+     * @param in: 输入流
+     * @return org.zero.utils.tree.Tree:
+     * @throws IOException: 读取失败或格式错误
+     * @author : cgl
+     * @since 2026/10/17 14:55
+     **/
+    public Tree decode(InputStream in) throws IOException {
+        return decode(new Input(in, null));
+    }
+
+    /**
+     * 从缓冲区解码（从position开始读，读完后position位于该树的末尾）
+     *
+     * @param buffer: 缓冲区
+     * @return org.zero.utils.tree.Tree:
+     * @throws IOException: 格式错误或数据不完整
+     * @author : cgl
+     * @since 2026/10/17 14:55
+     **/
+    public Tree decode(ByteBuffer buffer) throws IOException {
+        try {
+            return decode(new Input(null, buffer));
+        } catch (BufferUnderflowException e) {
+            throw new EOFException("树数据不完整");
+        }
+    }
+
+    private void encode(Tree tree, Output out) throws IOException {
+        TreeIntervalIndex intervals = tree.intervalIndex();
+        NodeIndex index = tree.getIndex();
+        int size = intervals.size();
+
+        // 各结点的标识位置（链表：keyHeads[结点] -> keyNexts[位置] -> ...），结点组按出现顺序重新编号
+        int[] keyHeads = new int[size];
+        Arrays.fill(keyHeads, -1);
+        int[] keyNexts = new int[index.capacity()];
+        Map<Integer, Integer> localGroups = new HashMap<>();
+        List<String> groupNames = new ArrayList<>();
+        for (int position = index.capacity() - 1; position >= 0; position--) {
+            TreeNode<?> node = index.nodeAt(position);
+            int number = node == null ? TreeIntervalIndex.NONE : intervals.number(node);
+            if (number == TreeIntervalIndex.NONE) {
+                continue;
+            }
+            keyNexts[position] = keyHeads[number];
+            keyHeads[number] = position;
+            int group = index.groupAt(position);
+            if (group != NodeIndex.NAMED && !localGroups.containsKey(group)) {
+                localGroups.put(group, -1);
+            }
+        }
+        for (Map.Entry<Integer, Integer> entry : localGroups.entrySet()) {
+            entry.setValue(groupNames.size());
+            groupNames.add(NodeIndex.groupName(entry.getKey()));
+        }
+
+        out.writeFixedInt(MAGIC, mode);
+        out.writeByte(FORMAT_VERSION);
+        out.writeFixedInt(size, mode);
+        out.writeString(tree.getRootKey());
+        out.writeVarInt(groupNames.size());
+        for (String name : groupNames) {
+            out.writeString(name);
+        }
+
+        @SuppressWarnings("unchecked")
+        ItemSerializer<Object> itemSerializer = (ItemSerializer<Object>) serializer;
+        for (int number = 0; number < size; number++) {
+            int keyCount = 0;
+            for (int position = keyHeads[number]; position >= 0; position = keyNexts[position]) {
+                keyCount++;
+            }
+            out.writeVarInt(keyCount);
+            for (int position = keyHeads[number]; position >= 0; position = keyNexts[position]) {
+                int group = index.groupAt(position);
+                Object id = index.idAt(position);
+                // 组序号+1，0表示不属于任何结点组
+                out.writeVarInt(group == NodeIndex.NAMED ? 0 : localGroups.get(group) + 1);
+                if (group != NodeIndex.NAMED && NodeIndex.isLong(id)) {
+                    out.writeByte(KEY_NUMBER);
+                    out.writeVarLong(zigzag(NodeIndex.toLong(id)));
+                } else {
+                    out.writeByte(KEY_STRING);
+                    out.writeString(String.valueOf(id));
+                }
+            }
+
+            // 元素长度+1，0表示null
+            Object item = intervals.nodeAt(number).getItem();
+            if (item == null) {
+                out.writeVarInt(0);
+            } else {
+                byte[] bytes = itemSerializer.serialize(item);
+                out.writeVarInt(bytes.length + 1);
+                out.write(bytes, 0, bytes.length);
+            }
+
+            int childCount = 0;
+            int end = intervals.subtreeEnd(number);
+            for (int child = number + 1; child < end; child = intervals.subtreeEnd(child)) {
+                childCount++;
+            }
+            out.writeVarInt(childCount);
+        }
+    }
+
+    private Tree decode(Input in) throws IOException {
+        int magic = in.readFixedInt(ByteUtil.Mode.BIG_ENDIAN);
+        ByteUtil.Mode encodedMode;
+        if (magic == MAGIC) {
+            encodedMode = ByteUtil.Mode.BIG_ENDIAN;
+        } else if (Integer.reverseBytes(magic) == MAGIC) {
+            encodedMode = ByteUtil.Mode.LITTLE_ENDIAN;
+        } else {
+            throw new IOException("不是树的二进制数据");
+        }
+        int version = in.readByte();
+        if (version != FORMAT_VERSION) {
+            throw new IOException("不支持的树数据版本：" + version);
+        }
+        int size = in.readFixedInt(encodedMode);
+        if (size <= 0) {
+            throw new IOException("树数据格式错误");
+        }
+        String rootKey = in.readString();
+        // 组名只查找已登记的结点组，未登记的组名不写入全局登记表
+        int groupCount = in.readVarInt();
+        String[] groupNames = new String[in.initialCapacity(groupCount, 1)];
+        int[] groups = new int[groupNames.length];
+        for (int i = 0; i < groupCount; i++) {
+            if (i == groups.length) {
+                groupNames = Arrays.copyOf(groupNames, i << 1);
+                groups = Arrays.copyOf(groups, i << 1);
+            }
+            groupNames[i] = in.readString();
+            if (groupNames[i] == null) {
+                throw new IOException("树数据格式错误");
+            }
+            groups[i] = NodeIndex.registeredGroup(groupNames[i]);
+        }
+
+        // 每个结点至少占3个字节（标识数量、元素长度、子结点数量）
+        NodeIndex index = new NodeIndex(in.initialCapacity(size, 3));
+        TreeNode<?> root = null;
+        // 尚有子结点未读取的祖先结点及其剩余子结点数量
+        TreeNode<?>[] stack = new TreeNode<?>[16];
+        int[] remaining = new int[16];
+        int top = 0;
+        for (int number = 0; number < size; number++) {
+            TreeNode<Object> node = new TreeNode<>();
+            int keyCount = in.readVarInt();
+            for (int i = 0; i < keyCount; i++) {
+                int group = in.readVarInt() - 1;
+                int type = in.readByte();
+                Object id = type == KEY_NUMBER ? (Object) unzigzag(in.readVarLong()) : in.readString();
+                if (group < 0) {
+                    index.put(NodeIndex.NAMED, id, node);
+                } else if (group >= groupCount) {
+                    throw new IOException("树数据格式错误");
+                } else if (groups[group] == NodeIndex.NAMED) {
+                    index.putUnregistered(groupNames[group], id, node);
+                } else {
+                    index.put(groups[group], id, node);
+                }
+            }
+            int length = in.readVarInt() - 1;
+            if (length >= 0) {
+                node.setItem(serializer.deserialize(in.read(length)));
+            }
+
+            if (number == 0) {
+                root = node;
+            } else if (top == 0) {
+                throw new IOException("树数据格式错误");
+            } else {
+                stack[top - 1].addChild(node);
+                if (--remaining[top - 1] == 0) {
+                    stack[--top] = null;
+                }
+            }
+            int childCount = in.readVarInt();
+            if (childCount > 0) {
+                if (top == stack.length) {
+                    stack = Arrays.copyOf(stack, top << 1);
+                    remaining = Arrays.copyOf(remaining, top << 1);
+                }
+                stack[top] = node;
+                remaining[top++] = childCount;
+            }
+        }
+        if (top != 0) {
+            throw new IOException("树数据不完整");
+        }
+        return Tree.of(root, rootKey, index);
+    }
+
+    private static long zigzag(long value) {
+        return value << 1 ^ value >> 63;
+    }
+
+    private static long unzigzag(long value) {
+        return value >>> 1 ^ -(value & 1);
+    }
+
+    /**
+     * 写出（输出流时先写入内部缓冲区）
+     **/
+    private static final class Output {
+
+        private final OutputStream stream;
+
+        private final ByteBuffer buffer;
+
+        private Output(OutputStream stream, ByteBuffer buffer) {
+            this.stream = stream;
+            this.buffer = buffer == null ? ByteBuffer.allocate(8192) : buffer;
+        }
+
+        private void writeByte(int value) throws IOException {
+            if (stream != null && !buffer.hasRemaining()) {
+                flush();
+            }
+            buffer.put((byte) value);
+        }
+
+        private void write(byte[] bytes, int offset, int length) throws IOException {
+            if (stream != null && length > buffer.remaining()) {
+                flush();
+                if (length > buffer.capacity()) {
+                    stream.write(bytes, offset, length);
+                    return;
+                }
+            }
+            buffer.put(bytes, offset, length);
+        }
+
+        private void writeFixedInt(int value, ByteUtil.Mode mode) throws IOException {
+            byte[] bytes = new byte[4];
+            ByteBuffer.wrap(bytes).order(mode.toByteOrder()).putInt(value);
+            write(bytes, 0, bytes.length);
+        }
+
+        private void writeVarInt(int value) throws IOException {
+            writeVarLong(value & 0xFFFFFFFFL);
+        }
+
+        private void writeVarLong(long value) throws IOException {
+            while ((value & ~0x7FL) != 0) {
+                writeByte((int) (value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            writeByte((int) value);
+        }
+
+        /**
+         * 字符串：长度+1（0表示null）+ UTF-8字节
+         **/
+        private void writeString(String value) throws IOException {
+            if (value == null) {
+                writeVarInt(0);
+                return;
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarInt(bytes.length + 1);
+            write(bytes, 0, bytes.length);
+        }
+
+        private void flush() throws IOException {
+            if (stream != null) {
+                stream.write(buffer.array(), 0, buffer.position());
+                buffer.clear();
+            }
+        }
+    }
+
+    /**
+     * 读取（输入流时逐块读入内部缓冲区，不多读该树之外的字节）
+     **/
+    private static final class Input {
+
+        private final InputStream stream;
+
+        private final ByteBuffer buffer;
+
+        private Input(InputStream stream, ByteBuffer buffer) {
+            this.stream = stream;
+            this.buffer = buffer;
+        }
+
+        private int readByte() throws IOException {
+            if (stream == null) {
+                return buffer.get() & 0xFF;
+            }
+            int value = stream.read();
+            if (value < 0) {
+                throw new EOFException("树数据不完整");
+            }
+            return value;
+        }
+
+        /**
+         * 按数据中声明的数量取得初始容量：缓冲区时数量不能超过剩余字节所能容纳的数量，输入流时不超过STREAM_CAPACITY（之后按实际读到的数据扩容），
+         * 避免按错误或恶意的数据一次性分配过大的内存
+         *
+         * @param count:    声明的数量
+         * @param minBytes: 每项至少占用的字节数
+         **/
+        private int initialCapacity(int count, int minBytes) throws IOException {
+            if (stream == null) {
+                if (count > buffer.remaining() / minBytes) {
+                    throw new IOException("树数据不完整");
+                }
+                return count;
+            }
+            return Math.min(count, STREAM_CAPACITY);
+        }
+
+        /**
+         * 读取指定长度的字节（缓冲区时为不复制的视图；输入流时随读到的数据逐步扩容，不按声明的长度一次性分配）
+         **/
+        private ByteBuffer read(int length) throws IOException {
+            if (stream == null) {
+                if (length > buffer.remaining()) {
+                    throw new BufferUnderflowException();
+                }
+                ByteBuffer view = buffer.slice();
+                view.limit(length);
+                buffer.position(buffer.position() + length);
+                return view;
+            }
+            byte[] bytes = new byte[Math.min(length, STREAM_CAPACITY)];
+            int offset = 0;
+            while (offset < length) {
+                if (offset == bytes.length) {
+                    bytes = Arrays.copyOf(bytes, (int) Math.min(length, (long) offset << 1));
+                }
+                int count = stream.read(bytes, offset, bytes.length - offset);
+                if (count < 0) {
+                    throw new EOFException("树数据不完整");
+                }
+                offset += count;
+            }
+            return ByteBuffer.wrap(bytes);
+        }
+
+        private int readFixedInt(ByteUtil.Mode mode) throws IOException {
+            ByteBuffer bytes = read(4);
+            byte[] array = new byte[4];
+            bytes.get(array);
+            return (int) ByteUtil.byteArray2Long(array, mode);
+        }
+
+        private int readVarInt() throws IOException {
+            long value = readVarLong();
+            if (value > Integer.MAX_VALUE) {
+                throw new IOException("树数据格式错误");
+            }
+            return (int) value;
+        }
+
+        private long readVarLong() throws IOException {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                int b = readByte();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IOException("树数据格式错误");
+        }
+
+        private String readString() throws IOException {
+            int length = readVarInt() - 1;
+            if (length < 0) {
+                return null;
+            }
+            ByteBuffer bytes = read(length);
+            return StandardCharsets.UTF_8.decode(bytes).toString();
+        }
+    }
+
+}
@@ -0,0 +1,242 @@
+package org.zero.utils.tree;
+
+import lombok.Getter;
+
+import java.util.Arrays;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * 树导出为扁平行（Tree.build的逆操作），用于报表、批量写库
+ * <p>
+ * 按区间索引的先序编号依次输出除根结点外的每个结点，每行带深度（根结点的一级子结点为1）、在兄弟结点中的序号（从0开始）及物化路径（如 /1/5/42）；
+ * 每行持有父结点所在行，路径由各级行的主键组成、共享祖先前缀，只在调用getPath时拼成字符串。
+ * 并行导出时按兄弟子树拆分后用fork-join并行输出，同一子树内仍按先序输出，不同子树之间的输出顺序不确定（可按行的先序编号排序）
+ *
+ * @author : cgl
+ * @version : 1.0
+ * @since : 2026/10/17 15:18
+ **/
+public final class TreeExport {
+
+    /**
+     * 顺序输出的最大区间结点数量
+     **/
+    private final static int SEQUENTIAL_THRESHOLD = 4096;
+
+    private TreeExport() {
+    }
+
+    /**
+     * 导出树
+     *
+     * @param tree:     树
+     * @param key:      元素的主键取值函数（组成物化路径）
+     * @param sink:     接收行的方法（并行导出时会被多个线程同时调用，须线程安全）
+     * @param parallel: 是否并行导出
+     * @author : cgl
+     * @since 2026/10/17 15:18
+     **/
+    @SuppressWarnings("unchecked")
+    public static <T> void export(Tree tree, Function<? super T, ?> key, Consumer<? super Row> sink, boolean parallel) {
+        TreeIntervalIndex intervals = tree.intervalIndex();
+        int size = intervals.size();
+        if (size <= 1) {
+            return;
+        }
+        ExportTask task = new ExportTask(intervals, (Function<Object, ?>) key, sink, 1, size, null, 0);
+        if (parallel) {
+            task.invoke();
+        } else {
+            task.emit(1, size, null, 0);
+        }
+    }
+
+    /**
+     * 导出的行
+     **/
+    @Getter
+    public static final class Row {
+
+        /**
+         * 结点的先序编号（根结点为0，第一行为1）
+         **/
+        private final int number;
+
+        private final TreeNode<?> node;
+
+        /**
+         * 父结点所在行（根结点的一级子结点为null）
+         **/
+        private final Row parent;
+
+        /**
+         * 元素主键
+         **/
+        private final Object key;
+
+        /**
+         * 深度（根结点的一级子结点为1）
+         **/
+        private final int depth;
+
+        /**
+         * 在兄弟结点中的序号（从0开始）
+         **/
+        private final int order;
+
+        private Row(int number, TreeNode<?> node, Row parent, Object key, int depth, int order) {
+            this.number = number;
+            this.node = node;
+            this.parent = parent;
+            this.key = key;
+            this.depth = depth;
+            this.order = order;
+        }
+
+        public Object getItem() {
+            return node.getItem();
+        }
+
+        /**
+         * 父结点的主键（根结点的一级子结点为null）
+         **/
+        public Object getParentKey() {
+            return parent == null ? null : parent.key;
+        }
+
+        /**
+         * 物化路径（如 /1/5/42）
+         **/
+        public String getPath() {
+            return appendPath(new StringBuilder(depth * 8), "/").toString();
+        }
+
+        /**
+         * 将物化路径追加到builder（每级主键前加分隔符）
+         *
+         * @param builder:   builder
+         * @param separator: 分隔符
+         * @return java.lang.StringBuilder: builder
+         **/
+        public StringBuilder appendPath(StringBuilder builder, String separator) {
+            Object[] keys = new Object[depth];
+            int i = depth;
+            for (Row row = this; row != null && i > 0; row = row.parent) {
+                keys[--i] = row.key;
+            }
+            for (; i < depth; i++) {
+                builder.append(separator).append(keys[i]);
+            }
+            return builder;
+        }
+
+        @Override
+        public String toString() {
+            return "Row{number=" + number + ", path=" + getPath() + ", depth=" + depth + ", order=" + order + "}";
+        }
+    }
+
+    /**
+     * 输出先序编号区间[from, to)内的行，区间由同一父结点下若干相邻的兄弟子树组成
+     **/
+    private static final class ExportTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final TreeIntervalIndex intervals;
+
+        private final Function<Object, ?> key;
+
+        private final Consumer<? super Row> sink;
+
+        private final int from;
+
+        private final int to;
+
+        /**
+         * 区间内各兄弟子树的父结点所在行
+         **/
+        private final Row parent;
+
+        /**
+         * 区间内第一棵子树在兄弟结点中的序号
+         **/
+        private final int firstOrder;
+
+        private ExportTask(TreeIntervalIndex intervals, Function<Object, ?> key, Consumer<? super Row> sink, int from, int to, Row parent, int firstOrder) {
+            this.intervals = intervals;
+            this.key = key;
+            this.sink = sink;
+            this.from = from;
+            this.to = to;
+            this.parent = parent;
+            this.firstOrder = firstOrder;
+        }
+
+        @Override
+        protected void compute() {
+            int start = from;
+            Row parentRow = parent;
+            int order = firstOrder;
+            while (start < to) {
+                if (to - start <= SEQUENTIAL_THRESHOLD) {
+                    emit(start, to, parentRow, order);
+                    return;
+                }
+                int end = intervals.subtreeEnd(start);
+                if (end < to) {
+                    // 多个兄弟子树：在区间中点附近的兄弟子树处拆成两半
+                    int middle = start + ((to - start) >>> 1);
+                    int split = end;
+                    int count = 1;
+                    while (split < middle) {
+                        int next = intervals.subtreeEnd(split);
+                        if (next >= to) {
+                            break;
+                        }
+                        split = next;
+                        count++;
+                    }
+                    invokeAll(new ExportTask(intervals, key, sink, start, split, parentRow, order),
+                            new ExportTask(intervals, key, sink, split, to, parentRow, order + count));
+                    return;
+                }
+                // 区间只是单个子树：输出子树的根结点后沿子树逐层向下（不递归，深层级的树不会栈溢出）
+                parentRow = row(start, parentRow, order);
+                sink.accept(parentRow);
+                order = 0;
+                start++;
+            }
+        }
+
+        /**
+         * 按先序顺序输出区间内的行，只保留当前结点到区间顶层的各级行
+         **/
+        private void emit(int start, int stop, Row parentRow, int order) {
+            int base = intervals.depthAt(start);
+            Row[] path = new Row[16];
+            int[] orders = new int[17];
+            orders[0] = order;
+            for (int number = start; number < stop; number++) {
+                int level = intervals.depthAt(number) - base;
+                if (level + 1 >= path.length) {
+                    path = Arrays.copyOf(path, path.length << 1);
+                    orders = Arrays.copyOf(orders, path.length + 1);
+                }
+                Row row = row(number, level == 0 ? parentRow : path[level - 1], orders[level]++);
+                path[level] = row;
+                orders[level + 1] = 0;
+                sink.accept(row);
+            }
+        }
+
+        private Row row(int number, Row parentRow, int order) {
+            TreeNode<?> node = intervals.nodeAt(number);
+            Object item = node.getItem();
+            return new Row(number, node, parentRow, item == null ? null : key.apply(item), intervals.depthAt(number), order);
+        }
+    }
+
+}
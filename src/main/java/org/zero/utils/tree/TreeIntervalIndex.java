@@ -0,0 +1,347 @@
+package org.zero.utils.tree;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.ConcurrentModificationException;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 树的区间索引（欧拉序/先序编号）
+ * <p>
+ * 一次先序遍历为从根结点可达的每个结点分配先序编号，并记录深度和子树结点数：结点node的子树即为先序数组中的连续区间[pre, pre + subtreeSize)，
+ * 因此"A是否为B的祖先"只需比较编号（O(1)），"B的所有子孙结点"为结点数组上的一段连续视图，无需逐层遍历children；
+ * 索引创建后树若经Tree的方法（addNode、removeNode、moveNode、combine等）或Map视图（getMap()）修改，索引即失效，再使用会抛出ConcurrentModificationException，
+ * 可通过Tree.intervalIndex()取得按需重建的最新索引（直接修改结点的children不会被感知）
+ *
+ * @author : cgl
+ * @version : 1.0
+ * @since : 2026/10/17 14:45
+ **/
+public final class TreeIntervalIndex {
+
+    /**
+     * 不在索引中的结点编号（结点不存在或从根结点不可达）
+     **/
+    public final static int NONE = -1;
+
+    private final Tree tree;
+
+    private final int modCount;
+
+    /**
+     * 创建时树的结点索引及其修改次数（绕过Tree直接修改索引，如通过getMap()删除后压缩，也会使区间索引失效）
+     **/
+    private final NodeIndex index;
+
+    private final int indexModCount;
+
+    /**
+     * 先序编号 -> 结点
+     **/
+    private final TreeNode<?>[] order;
+
+    /**
+     * 先序编号 -> 父结点先序编号（根结点为NONE）
+     **/
+    private final int[] parents;
+
+    private final int[] depths;
+
+    private final int[] sizes;
+
+    /**
+     * 结点 -> 先序编号
+     **/
+    private final Map<TreeNode<?>, Integer> numbers;
+
+    /**
+     * 结点索引位置 -> 先序编号（按结点组 + 主键查询时免去结点的哈希查找）
+     **/
+    private final int[] positionNumbers;
+
+    private TreeIntervalIndex(Tree tree, int modCount, NodeIndex index, TreeNode<?>[] order, int[] parents, int[] depths, int[] sizes, Map<TreeNode<?>, Integer> numbers, int[] positionNumbers) {
+        this.tree = tree;
+        this.modCount = modCount;
+        this.index = index;
+        this.indexModCount = index.modCount();
+        this.order = order;
+        this.parents = parents;
+        this.depths = depths;
+        this.sizes = sizes;
+        this.numbers = numbers;
+        this.positionNumbers = positionNumbers;
+    }
+
+    /**
+     * 为树创建区间索引（只包含从根结点可达的结点）
+     *
+     * @param tree: 树
+     * @return org.zero.utils.tree.TreeIntervalIndex:
+     * @author : cgl
+     * @since 2026/10/17 14:45
+     **/
+    static TreeIntervalIndex of(Tree tree) {
+        NodeIndex index = tree.getIndex();
+        int expectedSize = Math.max(16, index.size());
+        Map<TreeNode<?>, Integer> numbers = new IdentityHashMap<>(expectedSize * 2);
+        TreeNode<?>[] order = new TreeNode<?>[expectedSize];
+        int[] parents = new int[expectedSize];
+        int[] depths = new int[expectedSize];
+        int[] sizes = new int[expectedSize];
+        int size = 0;
+
+        if (tree.getRoot() != null) {
+            // 显式栈先序遍历：栈中为待编号结点及其父结点编号，值小于NONE表示该结点子树已遍历完毕、需计算子树结点数
+            TreeNode<?>[] stack = new TreeNode<?>[16];
+            int[] stackValues = new int[16];
+            int top = 0;
+            stack[top] = tree.getRoot();
+            stackValues[top++] = NONE;
+            while (top > 0) {
+                TreeNode<?> node = stack[--top];
+                int value = stackValues[top];
+                if (value < NONE) {
+                    int number = -value - 2;
+                    sizes[number] = size - number;
+                    continue;
+                }
+                if (numbers.containsKey(node)) {
+                    // 同一结点被多个父结点引用时只保留第一次
+                    continue;
+                }
+                if (size == order.length) {
+                    order = Arrays.copyOf(order, size << 1);
+                    parents = Arrays.copyOf(parents, size << 1);
+                    depths = Arrays.copyOf(depths, size << 1);
+                    sizes = Arrays.copyOf(sizes, size << 1);
+                }
+                int number = size++;
+                numbers.put(node, number);
+                order[number] = node;
+                parents[number] = value;
+                depths[number] = value == NONE ? 0 : depths[value] + 1;
+
+                // 先压入结束标记，再逆序压入子结点，保证子结点按原顺序出栈
+                int childCount = node.getChildren().size();
+                if (top + childCount + 1 > stack.length) {
+                    int capacity = Math.max(stack.length << 1, top + childCount + 1);
+                    stack = Arrays.copyOf(stack, capacity);
+                    stackValues = Arrays.copyOf(stackValues, capacity);
+                }
+                stack[top] = node;
+                stackValues[top++] = -number - 2;
+                top += childCount;
+                int i = top;
+                for (TreeNode<?> child : node.getChildren()) {
+                    stack[--i] = child;
+                    stackValues[i] = number;
+                }
+            }
+        }
+
+        int[] positionNumbers = new int[index.capacity()];
+        for (int position = 0; position < positionNumbers.length; position++) {
+            TreeNode<?> node = index.nodeAt(position);
+            Integer number = node == null ? null : numbers.get(node);
+            positionNumbers[position] = number == null ? NONE : number;
+        }
+        return new TreeIntervalIndex(tree, tree.modCount(), index, Arrays.copyOf(order, size), Arrays.copyOf(parents, size), Arrays.copyOf(depths, size), Arrays.copyOf(sizes, size), numbers, positionNumbers);
+    }
+
+    /**
+     * 创建后树是否未被修改（失效的索引不能再使用）
+     **/
+    public boolean isValid() {
+        return tree.modCount() == modCount && tree.getIndex() == index && index.modCount() == indexModCount;
+    }
+
+    /**
+     * 索引中的结点数量
+     **/
+    public int size() {
+        checkValid();
+        return order.length;
+    }
+
+    /**
+     * 结点的先序编号
+     *
+     * @param node: 结点
+     * @return int: 先序编号（根结点为0），不在索引中时返回NONE
+     **/
+    public int number(TreeNode<?> node) {
+        checkValid();
+        Integer number = node == null ? null : numbers.get(node);
+        return number == null ? NONE : number;
+    }
+
+    /**
+     * 按结点组、主键取得结点的先序编号
+     *
+     * @param nodeGroup: 结点组名
+     * @param id:        结点主键
+     * @return int: 先序编号（根结点为0），不在索引中（或结点组未登记、为null）时返回NONE
+     **/
+    public int number(String nodeGroup, Object id) {
+        checkValid();
+        // 只读查找，不登记新的结点组；结点组未登记时不可能有该结点组的结点
+        int group = NodeIndex.registeredGroup(nodeGroup);
+        if (group == NodeIndex.NAMED) {
+            return NONE;
+        }
+        int position = tree.getIndex().position(group, id);
+        return position < 0 || position >= positionNumbers.length ? NONE : positionNumbers[position];
+    }
+
+    /**
+     * 先序编号对应的结点
+     **/
+    public TreeNode<?> nodeAt(int number) {
+        checkValid();
+        return order[number];
+    }
+
+    /**
+     * 父结点的先序编号，根结点返回NONE
+     **/
+    public int parentAt(int number) {
+        checkValid();
+        return parents[number];
+    }
+
+    /**
+     * 先序编号对应结点的深度（根结点为0）
+     **/
+    public int depthAt(int number) {
+        checkValid();
+        return depths[number];
+    }
+
+    /**
+     * 结点的后序编号（由先序编号、深度、子树结点数推算：post = pre - depth + subtreeSize - 1），不在索引中时返回NONE
+     **/
+    public int post(TreeNode<?> node) {
+        int number = number(node);
+        return number == NONE ? NONE : number - depths[number] + sizes[number] - 1;
+    }
+
+    /**
+     * 结点深度（根结点为0），不在索引中时返回NONE
+     **/
+    public int depth(TreeNode<?> node) {
+        int number = number(node);
+        return number == NONE ? NONE : depths[number];
+    }
+
+    /**
+     * 以结点为根的子树的结点数量（含结点本身），不在索引中时返回0
+     **/
+    public int subtreeSize(TreeNode<?> node) {
+        int number = number(node);
+        return number == NONE ? 0 : sizes[number];
+    }
+
+    /**
+     * 子树结束位置（不含）：结点的子树为先序编号区间[number, subtreeEnd(number))
+     **/
+    public int subtreeEnd(int number) {
+        checkValid();
+        return number + sizes[number];
+    }
+
+    /**
+     * ancestor是否为node的祖先结点（不含node本身，O(1)）
+     *
+     * @param ancestor: 祖先结点
+     * @param node:     结点
+     * @return boolean: 任一结点不在索引中时返回false
+     **/
+    public boolean isAncestor(TreeNode<?> ancestor, TreeNode<?> node) {
+        return isAncestor(number(ancestor), number(node));
+    }
+
+    /**
+     * 按结点组、主键判断祖先关系（不含结点本身，O(1)）
+     *
+     * @param ancestorGroup: 祖先结点组名
+     * @param ancestorId:    祖先结点主键
+     * @param nodeGroup:     结点组名
+     * @param id:            结点主键
+     * @return boolean: 任一结点不在索引中时返回false
+     **/
+    public boolean isAncestor(String ancestorGroup, Object ancestorId, String nodeGroup, Object id) {
+        return isAncestor(number(ancestorGroup, ancestorId), number(nodeGroup, id));
+    }
+
+    /**
+     * 结点的所有子孙结点（不含结点本身，按先序排列），为结点数组上的只读视图，不复制结点
+     *
+     * @param node: 结点
+     * @return java.util.List: 不在索引中时返回空列表
+     **/
+    public List<TreeNode<?>> descendants(TreeNode<?> node) {
+        int number = number(node);
+        return number == NONE ? Collections.emptyList() : new Range(number + 1, number + sizes[number]);
+    }
+
+    /**
+     * 以结点为根的子树（含结点本身，按先序排列），为结点数组上的只读视图，不复制结点
+     *
+     * @param node: 结点
+     * @return java.util.List: 不在索引中时返回空列表
+     **/
+    public List<TreeNode<?>> subtree(TreeNode<?> node) {
+        int number = number(node);
+        return number == NONE ? Collections.emptyList() : new Range(number, number + sizes[number]);
+    }
+
+    /**
+     * 先序编号ancestor对应的结点是否为node对应结点的祖先结点或其本身（O(1)）
+     **/
+    boolean contains(int ancestor, int node) {
+        return ancestor <= node && node < ancestor + sizes[ancestor];
+    }
+
+    private boolean isAncestor(int ancestor, int node) {
+        return ancestor != NONE && node != NONE && ancestor < node && node < ancestor + sizes[ancestor];
+    }
+
+    private void checkValid() {
+        if (!isValid()) {
+            throw new ConcurrentModificationException("树已被修改，区间索引已失效");
+        }
+    }
+
+    /**
+     * 先序数组上的连续区间视图
+     **/
+    private final class Range extends AbstractList<TreeNode<?>> {
+
+        private final int from;
+
+        private final int to;
+
+        private Range(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public TreeNode<?> get(int i) {
+            checkValid();
+            if (i < 0 || i >= to - from) {
+                throw new IndexOutOfBoundsException("Index: " + i + ", Size: " + (to - from));
+            }
+            return order[from + i];
+        }
+
+        @Override
+        public int size() {
+            return to - from;
+        }
+    }
+
+}
@@ -0,0 +1,264 @@
+package org.zero.utils.tree;
+
+import com.alibaba.fastjson.JSONException;
+import com.alibaba.fastjson.JSONObject;
+import com.alibaba.fastjson.JSONReader;
+import com.alibaba.fastjson.parser.DefaultJSONParser;
+import com.alibaba.fastjson.parser.JSONLexer;
+import com.alibaba.fastjson.parser.JSONReaderScanner;
+import com.alibaba.fastjson.parser.JSONToken;
+import com.alibaba.fastjson.parser.SymbolTable;
+
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * 从扁平JSON数组流式构建树
+ * <p>
+ * 输入为 [{"id":1,"parentId":null,"level":1,...},...] 形式的数组，通过fastjson的JSONReader逐个读取元素并立即加入树（规则同Tree.buildUnordered，元素无需排序），
+ * 不先把整个数组读成字符串或元素列表，峰值内存只有树本身；与TreeJsonWriter对应
+ *
+ * @author : cgl
+ * @version : 1.0
+ * @since : 2026/10/17 15:16
+ **/
+public class TreeJsonReader {
+
+    /**
+     * 逐个读取元素（转为type类型）构建树（UTF-8编码，不关闭输入流）
+     *
+     * @param in:             输入流
+     * @param type:           元素类型
+     * @param nodeGroup:      结点组名（为空时取元素类型名）
+     * @param rootKey:        根节点标识（默认为root）
+     * @param idGetter:       主键取值函数
+     * @param parentIdGetter: 父主键取值函数（为null时，所有元素都作为root的一级子结点）
+     * @param levelGetter:    结点层级取值函数（可为null）
+     * @return org.zero.utils.tree.Tree:
+     * @author : cgl
+     * @since 2026/10/17 15:16
+     **/
+    public static <T> Tree read(InputStream in, Class<T> type, String nodeGroup, String rootKey, Function<? super T, ?> idGetter, Function<? super T, ?> parentIdGetter, Function<? super T, ?> levelGetter) {
+        return read(new InputStreamReader(in, StandardCharsets.UTF_8), type, nodeGroup, rootKey, idGetter, parentIdGetter, levelGetter);
+    }
+
+    /**
+     * 逐个读取元素（转为type类型）构建树（不关闭reader）
+     *
+     * @param in:             reader
+     * @param type:           元素类型
+     * @param nodeGroup:      结点组名（为空时取元素类型名）
+     * @param rootKey:        根节点标识（默认为root）
+     * @param idGetter:       主键取值函数
+     * @param parentIdGetter: 父主键取值函数（为null时，所有元素都作为root的一级子结点）
+     * @param levelGetter:    结点层级取值函数（可为null）
+     * @return org.zero.utils.tree.Tree:
+     * @author : cgl
+     * @since 2026/10/17 15:16
+     **/
+    public static <T> Tree read(Reader in, Class<T> type, String nodeGroup, String rootKey, Function<? super T, ?> idGetter, Function<? super T, ?> parentIdGetter, Function<? super T, ?> levelGetter) {
+        JSONReader json = new JSONReader(in);
+        return Tree.buildUnordered(new Elements<>(json, () -> json.readObject(type)), nodeGroup, rootKey, idGetter, parentIdGetter, levelGetter, null);
+    }
+
+    /**
+     * 逐个读取元素构建树，元素存为JSONObject（UTF-8编码，不关闭输入流）
+     *
+     * @param in:            输入流
+     * @param nodeGroup:     结点组名（为空时为jsonobject）
+     * @param rootKey:       根节点标识（默认为root）
+     * @param idField:       主键字段名（默认为id）
+     * @param parentIdField: 父主键字段名（默认为parentId，元素没有该字段时作为root的一级子结点）
+     * @param levelField:    层级字段名（默认为level，元素没有该字段时不区分层级）
+     * @return org.zero.utils.tree.Tree:
+     * @author : cgl
+     * @since 2026/10/17 15:16
+     **/
+    public static Tree read(InputStream in, String nodeGroup, String rootKey, String idField, String parentIdField, String levelField) {
+        return read(new InputStreamReader(in, StandardCharsets.UTF_8), nodeGroup, rootKey, idField, parentIdField, levelField);
+    }
+
+    /**
+     * 逐个读取元素构建树，元素存为JSONObject（不关闭reader）
+     * <p>
+     * 直接驱动fastjson的词法分析器逐个字段读取：主键、父主键、层级为整数时按long读出，直接写入索引的long表和挂起表（不装箱、不逐行生成中间数组），
+     * 其它字段交给DefaultJSONParser解析；元素本身仍为JSONObject，其中的主键等字段值为Long
+     *
+     * @param in:            reader
+     * @param nodeGroup:     结点组名（为空时为jsonobject）
+     * @param rootKey:       根节点标识（默认为root）
+     * @param idField:       主键字段名（默认为id）
+     * @param parentIdField: 父主键字段名（默认为parentId，元素没有该字段时作为root的一级子结点）
+     * @param levelField:    层级字段名（默认为level，元素没有该字段时不区分层级）
+     * @return org.zero.utils.tree.Tree:
+     * @author : cgl
+     * @since 2026/10/17 15:16
+     **/
+    public static Tree read(Reader in, String nodeGroup, String rootKey, String idField, String parentIdField, String levelField) {
+        if (idField == null || "".equals(idField)) {
+            idField = "id";
+        }
+        if (parentIdField == null || "".equals(parentIdField)) {
+            parentIdField = "parentId";
+        }
+        if (levelField == null || "".equals(levelField)) {
+            levelField = "level";
+        }
+
+        DefaultJSONParser parser = new DefaultJSONParser(new JSONReaderScanner(in));
+        JSONLexer lexer = parser.getLexer();
+        SymbolTable symbols = parser.getSymbolTable();
+        Tree.Assembler assembler = new Tree.Assembler(16, nodeGroup, true);
+        Field id = new Field();
+        Field parentId = new Field();
+        Field level = new Field();
+
+        expect(lexer, JSONToken.LBRACKET);
+        lexer.nextToken();
+        while (lexer.token() != JSONToken.RBRACKET) {
+            expect(lexer, JSONToken.LBRACE);
+            JSONObject item = new JSONObject();
+            id.reset();
+            parentId.reset();
+            level.reset();
+            // 逐个字段读取（字段名经符号表驻留），读完一个值后词法分析器停在逗号或右括号上
+            while (true) {
+                String key = lexer.scanSymbol(symbols);
+                if (key == null) {
+                    if (lexer.token() == JSONToken.COMMA) {
+                        continue;
+                    }
+                    expect(lexer, JSONToken.RBRACE);
+                    break;
+                }
+                lexer.nextTokenWithColon();
+                Field field = key.equals(idField) ? id : key.equals(parentIdField) ? parentId : key.equals(levelField) ? level : null;
+                if (field != null && lexer.token() == JSONToken.LITERAL_INT && field.read(lexer)) {
+                    item.put(key, field.value);
+                    lexer.nextToken();
+                } else {
+                    Object value = parser.parse();
+                    // 整数统一为Long后存入元素，字符串保持原样
+                    if (value instanceof Number) {
+                        value = NodeIndex.normalize(value);
+                    }
+                    if (field != null) {
+                        field.number = false;
+                        field.other = value;
+                    }
+                    item.put(key, value);
+                }
+                if (lexer.token() != JSONToken.COMMA) {
+                    expect(lexer, JSONToken.RBRACE);
+                    break;
+                }
+            }
+            // 读入下一个元素的开始或数组结束
+            lexer.nextToken();
+            if (lexer.token() == JSONToken.COMMA) {
+                lexer.nextToken();
+            }
+
+            if (id.number && parentId.other == null && level.other == null) {
+                assembler.add(item, id.value, parentId.number, parentId.value, level.number, level.value);
+            } else {
+                assembler.add(item, id.boxed(), parentId.boxed(), NodeIndex.normalize(level.boxed()));
+            }
+        }
+        lexer.nextToken();
+        return assembler.finish(rootKey);
+    }
+
+    private static void expect(JSONLexer lexer, int token) {
+        if (lexer.token() != token) {
+            throw new JSONException("syntax error, expect " + JSONToken.name(token) + ", actual " + lexer.tokenName() + ", " + lexer.info());
+        }
+    }
+
+    /**
+     * 元素中主键、父主键或层级字段的值（逐个元素复用）：整数按long存放，其它非null值（字符串、超出long范围的大数等）按原对象存放
+     **/
+    private static final class Field {
+
+        private boolean number;
+
+        private long value;
+
+        private Object other;
+
+        private void reset() {
+            number = false;
+            other = null;
+        }
+
+        /**
+         * 按long读取词法分析器当前的整数
+         *
+         * @return boolean: 是否在long范围内（超出时不读取，由调用方按原对象读取）
+         **/
+        private boolean read(JSONLexer lexer) {
+            try {
+                value = lexer.longValue();
+            } catch (NumberFormatException e) {
+                return false;
+            }
+            number = true;
+            return true;
+        }
+
+        private Object boxed() {
+            return number ? (Object) value : other;
+        }
+    }
+
+    /**
+     * JSON数组元素的迭代器：首次调用时读入数组开始，读完最后一个元素后读入数组结束
+     **/
+    private static final class Elements<E> implements Iterator<E> {
+
+        private final JSONReader json;
+
+        private final Supplier<E> element;
+
+        private boolean started;
+
+        private boolean ended;
+
+        private Elements(JSONReader json, Supplier<E> element) {
+            this.json = json;
+            this.element = element;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (ended) {
+                return false;
+            }
+            if (!started) {
+                json.startArray();
+                started = true;
+            }
+            if (json.hasNext()) {
+                return true;
+            }
+            json.endArray();
+            ended = true;
+            return false;
+        }
+
+        @Override
+        public E next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return element.get();
+        }
+    }
+
+}
@@ -0,0 +1,194 @@
+package org.zero.utils.tree;
+
+import com.alibaba.fastjson.JSONWriter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * 树的流式JSON输出
+ * <p>
+ * 用显式栈（非递归）遍历结点，边遍历边通过fastjson的JSONWriter写出，不生成中间字符串或JSON对象，深层级的树也不会栈溢出；
+ * 输出格式与Jackson序列化Tree一致：{"root":{"item":{...},"children":[...]}}
+ *
+ * @author : cgl
+ * @version : 1.0
+ * @since : 2026/10/17 14:35
+ **/
+public class TreeJsonWriter {
+
+    /**
+     * 不限制深度
+     **/
+    public final static int UNLIMITED = -1;
+
+    /**
+     * 输出整棵树（UTF-8编码，不关闭输出流）
+     *
+     * @param tree: 树
+     * @param out:  输出流
+     * @author : cgl
+     * @since 2026/10/17 14:35
+     **/
+    public static void write(Tree tree, OutputStream out) throws IOException {
+        write(tree, out, UNLIMITED);
+    }
+
+    /**
+     * 输出树（UTF-8编码，不关闭输出流）
+     *
+     * @param tree:     树
+     * @param out:      输出流
+     * @param maxDepth: 最大输出深度（根结点为0，根结点的一级子结点为1，UNLIMITED表示不限制）
+     * @param fields:   元素输出字段（首字母大写，以便调用元素的getField方法，为空时输出整个元素）
+     * @author : cgl
+     * @since 2026/10/17 14:35
+     **/
+    public static void write(Tree tree, OutputStream out, int maxDepth, String... fields) throws IOException {
+        Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+        write(tree, writer, maxDepth, fields);
+        writer.flush();
+    }
+
+    /**
+     * 输出树（不关闭writer）
+     *
+     * @param tree:     树
+     * @param out:      writer
+     * @param maxDepth: 最大输出深度（根结点为0，根结点的一级子结点为1，UNLIMITED表示不限制）
+     * @param fields:   元素输出字段（首字母大写，以便调用元素的getField方法，为空时输出整个元素）
+     * @author : cgl
+     * @since 2026/10/17 14:35
+     **/
+    public static void write(Tree tree, Writer out, int maxDepth, String... fields) throws IOException {
+        JSONWriter json = new JSONWriter(out);
+        json.startObject();
+        json.writeKey("root");
+        if (tree == null || tree.getRoot() == null) {
+            json.writeValue(null);
+        } else {
+            writeNode(json, tree.getRoot(), (node) -> node.getChildren().iterator(), maxDepth, fields == null || fields.length == 0 ? null : new Projection(fields));
+        }
+        json.endObject();
+        json.flush();
+    }
+
+    /**
+     * 输出检索结果视图（只输出命中结点及其祖先结点，格式与输出整棵树相同，不关闭writer）
+     *
+     * @param view:   检索结果视图
+     * @param out:    writer
+     * @param fields: 元素输出字段（首字母大写，以便调用元素的getField方法，为空时输出整个元素）
+     * @author : cgl
+     * @since 2026/10/17 15:02
+     **/
+    public static void write(TreeSearchIndex.View view, Writer out, String... fields) throws IOException {
+        JSONWriter json = new JSONWriter(out);
+        json.startObject();
+        json.writeKey("root");
+        if (view == null || view.getRoot() == null) {
+            json.writeValue(null);
+        } else {
+            writeNode(json, view.getRoot(), (node) -> view.children(node).iterator(), UNLIMITED, fields == null || fields.length == 0 ? null : new Projection(fields));
+        }
+        json.endObject();
+        json.flush();
+    }
+
+    /**
+     * 输出结点及其子孙结点
+     **/
+    private static void writeNode(JSONWriter json, TreeNode<?> root, Function<TreeNode<?>, Iterator<TreeNode<?>>> childrenOf, int maxDepth, Projection projection) {
+        // 栈中为各层尚未输出的子结点
+        Deque<Iterator<TreeNode<?>>> stack = new ArrayDeque<>();
+        TreeNode<?> node = root;
+        while (true) {
+            if (node != null) {
+                json.startObject();
+                json.writeKey("item");
+                if (projection == null || node.getItem() == null) {
+                    json.writeValue(node.getItem());
+                } else {
+                    projection.write(json, node.getItem());
+                }
+                json.writeKey("children");
+                json.startArray();
+                if (maxDepth == UNLIMITED || stack.size() < maxDepth) {
+                    stack.push(childrenOf.apply(node));
+                } else {
+                    json.endArray();
+                    json.endObject();
+                }
+            }
+            if (stack.isEmpty()) {
+                return;
+            }
+            Iterator<TreeNode<?>> children = stack.peek();
+            if (children.hasNext()) {
+                node = children.next();
+            } else {
+                // 当前层的子结点已输出完，结束父结点
+                stack.pop();
+                json.endArray();
+                json.endObject();
+                node = null;
+            }
+        }
+    }
+
+    /**
+     * 元素字段投影（按元素类型缓存取值函数）
+     **/
+    private static final class Projection {
+
+        private final String[] fields;
+
+        private final String[] keys;
+
+        private final Map<Class<?>, Function<Object, Object>[]> getters = new IdentityHashMap<>();
+
+        private Projection(String[] fields) {
+            this.fields = fields;
+            this.keys = new String[fields.length];
+            for (int i = 0; i < fields.length; i++) {
+                keys[i] = Character.toLowerCase(fields[i].charAt(0)) + fields[i].substring(1);
+            }
+        }
+
+        private void write(JSONWriter json, Object item) {
+            Function<Object, Object>[] itemGetters = getters.computeIfAbsent(item.getClass(), this::resolve);
+            json.startObject();
+            for (int i = 0; i < fields.length; i++) {
+                // 元素不存在的字段不输出
+                if (itemGetters[i] != null) {
+                    json.writeKey(keys[i]);
+                    json.writeValue(itemGetters[i].apply(item));
+                }
+            }
+            json.endObject();
+        }
+
+        @SuppressWarnings("unchecked")
+        private Function<Object, Object>[] resolve(Class<?> type) {
+            Function<Object, Object>[] resolved = (Function<Object, Object>[]) new Function<?, ?>[fields.length];
+            for (int i = 0; i < fields.length; i++) {
+                try {
+                    resolved[i] = ItemAccessor.getter(type, fields[i]);
+                } catch (NoSuchMethodException e) {
+                    resolved[i] = null;
+                }
+            }
+            return resolved;
+        }
+    }
+
+}
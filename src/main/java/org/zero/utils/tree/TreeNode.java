@@ -1,18 +1,28 @@
 package org.zero.utils.tree;
 
-import lombok.Data;
+import com.alibaba.fastjson.annotation.JSONField;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
 
 import java.util.LinkedHashSet;
 import java.util.Set;
 
 /**
  * 树节点
+ * <p>
+ * 结点按引用区分（不按元素、子结点内容计算equals/hashCode），避免加入父结点的子结点集合时递归计算整棵子树的哈希值，
+ * 以及元素相同的兄弟结点被子结点集合去重
  *
  * @author : cgl
  * @version : 1.0
  * @since : 2019/11/28 17:19
  **/
-@Data
+@Getter
+@Setter
+@ToString
 public class TreeNode<T> {
 
     /**
@@ -21,8 +31,54 @@ public class TreeNode<T> {
     private T item;
 
     /**
-     * 子结点集合
+     * 子结点集合（直接增删其中的结点不会维护父结点，树上的结点应通过Tree的方法增删、移动）
      **/
+    @Setter(AccessLevel.NONE)
     Set<TreeNode<?>> children = new LinkedHashSet<>();
 
+    /**
+     * 父结点（由Tree维护，根结点及未挂到树上的结点为null）
+     **/
+    @JsonIgnore
+    @JSONField(serialize = false)
+    @ToString.Exclude
+    @Setter(AccessLevel.NONE)
+    private TreeNode<?> parent;
+
+    /**
+     * 替换子结点集合，并维护新旧子结点的父结点
+     *
+     * @param children: 子结点集合
+     **/
+    public void setChildren(Set<TreeNode<?>> children) {
+        for (TreeNode<?> child : this.children) {
+            if (child.parent == this) {
+                child.parent = null;
+            }
+        }
+        this.children = children;
+        if (children != null) {
+            for (TreeNode<?> child : children) {
+                child.parent = this;
+            }
+        }
+    }
+
+    /**
+     * 添加子结点，并维护子结点的父结点
+     **/
+    void addChild(TreeNode<?> child) {
+        children.add(child);
+        child.parent = this;
+    }
+
+    /**
+     * 移除子结点
+     **/
+    void removeChild(TreeNode<?> child) {
+        if (children.remove(child) && child.parent == this) {
+            child.parent = null;
+        }
+    }
+
 }
@@ -0,0 +1,423 @@
+package org.zero.utils.tree;
+
+import com.alibaba.fastjson.annotation.JSONField;
+import com.alibaba.fastjson.util.TypeUtils;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.BiPredicate;
+import java.util.stream.StreamSupport;
+
+/**
+ * 树的增量补丁
+ * <p>
+ * 按结点标识（结点组 + 主键，与Tree.map的标识一致）比较两个版本的树，得到新增、删除、移动、修改元素、调整子结点顺序的操作列表，
+ * 应用到与旧版本一致的另一个Tree上即可得到与新版本一致的树（包括兄弟结点顺序），用于只推送变化部分而不是整棵树；
+ * 比较时两棵树各先序遍历一次，按标识查找对应结点均为O(1)，总耗时与两棵树的结点数成线性关系；比较从根结点及孤立结点（Tree.orphans）可达的结点，根结点之间直接对应。
+ * <p>
+ * 孤立结点视为挂在一个虚拟的父结点下：结点在两个版本中都是孤立结点时不产生移动，由孤立变为有父结点（如父结点在新版本中出现）时产生MOVE，
+ * 新版本中新增或变为孤立的结点产生orphan为true的ADD、MOVE（应用时追加到orphans末尾）；孤立结点列表本身的顺序不比较
+ *
+ * @author : cgl
+ * @version : 1.0
+ * @since : 2026/10/17 15:05
+ **/
+@Getter
+@Setter
+public class TreePatch {
+
+    /**
+     * 根结点（或不需要父结点）的位置
+     **/
+    private final static int ROOT = -1;
+
+    /**
+     * 孤立结点（没有父结点）的位置
+     **/
+    private final static int ORPHAN = -2;
+
+    /**
+     * 操作列表（按应用顺序：新增、移动、修改按新版本的先序顺序，其后为删除，最后为调整子结点顺序）
+     **/
+    private List<Operation> operations = new ArrayList<>();
+
+    /**
+     * 比较两个版本的树（元素按equals比较）
+     *
+     * @param from: 旧版本
+     * @param to:   新版本
+     * @return org.zero.utils.tree.TreePatch:
+     * @author : cgl
+     * @since 2026/10/17 15:05
+     **/
+    public static TreePatch diff(Tree from, Tree to) {
+        return diff(from, to, Objects::equals);
+    }
+
+    /**
+     * 比较两个版本的树
+     *
+     * @param from:     旧版本
+     * @param to:       新版本
+     * @param sameItem: 元素是否未修改（如只比较版本号、更新时间字段）
+     * @return org.zero.utils.tree.TreePatch:
+     * @throws IllegalArgumentException: 树中存在不在索引中的结点（无法确定标识）
+     * @author : cgl
+     * @since 2026/10/17 15:05
+     **/
+    public static TreePatch diff(Tree from, Tree to, BiPredicate<Object, Object> sameItem) {
+        NodeIndex fromIndex = from.getIndex();
+        NodeIndex toIndex = to.getIndex();
+        TreePatch patch = new TreePatch();
+        List<Operation> removes = new ArrayList<>();
+        List<Operation> orders = new ArrayList<>();
+
+        // 旧版本结点（按索引位置） -> 新版本中的对应结点
+        TreeNode<?>[] counterparts = new TreeNode<?>[fromIndex.capacity()];
+        // 新版本结点（按索引位置）是否新增或移入了新的父结点（应用补丁时追加在父结点的子结点末尾）
+        boolean[] appended = new boolean[toIndex.capacity()];
+
+        for (TreeNode<?> node : reachable(to)) {
+            if (node == to.getRoot()) {
+                continue;
+            }
+            int position = position(toIndex, node);
+            int group = toIndex.groupAt(position);
+            Object id = toIndex.idAt(position);
+            int parentPosition = parentPosition(to, toIndex, node);
+
+            TreeNode<?> old = fromIndex.get(group, id);
+            if (old == null) {
+                patch.operations.add(Operation.of(Type.ADD, group, id, toIndex, parentPosition, node.getItem()));
+                appended[position] = true;
+                continue;
+            }
+            counterparts[position(fromIndex, old)] = node;
+            if (!sameParent(fromIndex, parentPosition(from, fromIndex, old), toIndex, parentPosition)) {
+                patch.operations.add(Operation.of(Type.MOVE, group, id, toIndex, parentPosition, null));
+                appended[position] = true;
+            }
+            if (!sameItem.test(old.getItem(), node.getItem())) {
+                patch.operations.add(Operation.of(Type.UPDATE, group, id, toIndex, ROOT, node.getItem()));
+            }
+        }
+
+        // 新版本中不存在的结点：只删除最上层的，其子树随之删除（仍存在的子孙结点此前已移走）
+        for (TreeNode<?> node : reachable(from)) {
+            if (node == from.getRoot()) {
+                continue;
+            }
+            int position = position(fromIndex, node);
+            TreeNode<?> parent = node.getParent();
+            if (counterparts[position] == null && (parent == null || parent == from.getRoot() || counterparts[position(fromIndex, parent)] != null)) {
+                removes.add(Operation.of(Type.REMOVE, fromIndex.groupAt(position), fromIndex.idAt(position), fromIndex, ROOT, null));
+            }
+        }
+
+        // 应用新增、移动、删除后，各结点的子结点顺序为：保留的原子结点（原顺序） + 新增或移入的子结点（新版本顺序），与新版本不一致时调整
+        for (TreeNode<?> node : reachable(to)) {
+            if (node.getChildren().isEmpty()) {
+                continue;
+            }
+            int position = node == to.getRoot() ? ROOT : position(toIndex, node);
+            TreeNode<?> old = position == ROOT ? from.getRoot() : fromIndex.get(toIndex.groupAt(position), toIndex.idAt(position));
+            List<TreeNode<?>> expected = new ArrayList<>(node.getChildren().size());
+            if (old != null) {
+                for (TreeNode<?> oldChild : old.getChildren()) {
+                    int oldPosition = fromIndex.position(oldChild);
+                    TreeNode<?> kept = oldPosition < 0 ? null : counterparts[oldPosition];
+                    if (kept != null && kept.getParent() == node) {
+                        expected.add(kept);
+                    }
+                }
+            }
+            for (TreeNode<?> child : node.getChildren()) {
+                if (appended[position(toIndex, child)]) {
+                    expected.add(child);
+                }
+            }
+            if (!expected.equals(new ArrayList<>(node.getChildren()))) {
+                Operation order = new Operation();
+                order.type = Type.ORDER;
+                if (position != ROOT) {
+                    order.nodeGroup = NodeIndex.groupName(toIndex.groupAt(position));
+                    order.id = toIndex.idAt(position);
+                }
+                order.children = new ArrayList<>(node.getChildren().size());
+                for (TreeNode<?> child : node.getChildren()) {
+                    int childPosition = position(toIndex, child);
+                    order.children.add(new Key(NodeIndex.groupName(toIndex.groupAt(childPosition)), toIndex.idAt(childPosition)));
+                }
+                orders.add(order);
+            }
+        }
+
+        patch.operations.addAll(removes);
+        patch.operations.addAll(orders);
+        return patch;
+    }
+
+    /**
+     * 补丁是否不含任何操作（两个版本一致）
+     **/
+    @JsonIgnore
+    @JSONField(serialize = false)
+    public boolean isEmpty() {
+        return operations == null || operations.isEmpty();
+    }
+
+    /**
+     * 将补丁应用到树上（树须与比较时的旧版本一致）
+     *
+     * @param tree: 树
+     * @throws IllegalArgumentException: 操作的结点或父结点不存在、子结点与补丁不一致
+     * @author : cgl
+     * @since 2026/10/17 15:05
+     **/
+    public void apply(Tree tree) {
+        apply(tree, null);
+    }
+
+    /**
+     * 将补丁应用到树上（树须与比较时的旧版本一致），新增、修改的元素转为itemType类型后放入树
+     * <p>
+     * 补丁经JSON传输后，元素反序列化为JSONObject（fastjson）或Map（jackson），应用时按元素类型转换，树中元素的类型与旧版本保持一致
+     *
+     * @param tree:     树
+     * @param itemType: 元素类型（为null时不转换）
+     * @throws IllegalArgumentException: 操作的结点或父结点不存在、结点组未登记、子结点与补丁不一致
+     * @author : cgl
+     * @since 2026/10/17 17:10
+     **/
+    public <T> void apply(Tree tree, Class<T> itemType) {
+        if (operations == null) {
+            return;
+        }
+        for (Operation operation : operations) {
+            // 补丁可能来自外部（如经JSON传输），只接受已登记的结点组，不登记新的结点组
+            checkGroup(operation.nodeGroup);
+            checkGroup(operation.parentNodeGroup);
+            switch (operation.type) {
+                case ADD:
+                    if (operation.orphan) {
+                        tree.addOrphan(operation.nodeGroup, operation.id, item(operation, itemType));
+                    } else {
+                        tree.addNode(operation.nodeGroup, operation.id, item(operation, itemType), operation.parentNodeGroup, operation.parentId);
+                    }
+                    break;
+                case MOVE:
+                    if (operation.orphan) {
+                        tree.orphanNode(operation.nodeGroup, operation.id);
+                    } else {
+                        tree.moveNode(operation.nodeGroup, operation.id, operation.parentNodeGroup, operation.parentId);
+                    }
+                    break;
+                case UPDATE:
+                    if (!tree.updateNode(operation.nodeGroup, operation.id, item(operation, itemType))) {
+                        throw new IllegalArgumentException("结点不存在：" + operation.nodeGroup + operation.id);
+                    }
+                    break;
+                case REMOVE:
+                    if (tree.removeNode(operation.nodeGroup, operation.id) == null) {
+                        throw new IllegalArgumentException("结点不存在：" + operation.nodeGroup + operation.id);
+                    }
+                    break;
+                case ORDER:
+                    TreeNode<?> parent = operation.id == null ? tree.getRoot() : node(tree, operation.nodeGroup, operation.id);
+                    List<TreeNode<?>> children = new ArrayList<>(operation.children.size());
+                    for (Key key : operation.children) {
+                        children.add(node(tree, key.nodeGroup, key.id));
+                    }
+                    tree.orderChildren(parent, children);
+                    break;
+                default:
+                    throw new IllegalArgumentException("不支持的操作：" + operation.type);
+            }
+        }
+    }
+
+    /**
+     * 操作类型
+     **/
+    public enum Type {
+        /**
+         * 新增结点（作为父结点的最后一个子结点，orphan为true时作为孤立结点）
+         */
+        ADD,
+
+        /**
+         * 删除结点及其子树
+         */
+        REMOVE,
+
+        /**
+         * 移动结点到新的父结点下（作为最后一个子结点，orphan为true时摘除后作为孤立结点）
+         */
+        MOVE,
+
+        /**
+         * 替换结点的元素
+         */
+        UPDATE,
+
+        /**
+         * 按children的顺序重排结点的子结点（主键为null时为根结点）
+         */
+        ORDER
+    }
+
+    /**
+     * 补丁操作
+     **/
+    @Getter
+    @Setter
+    public static class Operation {
+
+        private Type type;
+
+        private String nodeGroup;
+
+        private Object id;
+
+        /**
+         * 父结点组名、主键（新增、移动时使用，主键为null时为根结点）
+         **/
+        private String parentNodeGroup;
+
+        private Object parentId;
+
+        /**
+         * 新增、移动后是否作为孤立结点（没有父结点，追加到Tree.orphans末尾）
+         **/
+        private boolean orphan;
+
+        /**
+         * 元素（新增、修改时使用）
+         **/
+        private Object item;
+
+        /**
+         * 调整顺序后的子结点标识
+         **/
+        private List<Key> children;
+
+        private static Operation of(Type type, int group, Object id, NodeIndex index, int parentPosition, Object item) {
+            Operation operation = new Operation();
+            operation.type = type;
+            operation.nodeGroup = NodeIndex.groupName(group);
+            operation.id = id;
+            if (parentPosition == ORPHAN) {
+                operation.orphan = true;
+            } else if (parentPosition != ROOT) {
+                operation.parentNodeGroup = NodeIndex.groupName(index.groupAt(parentPosition));
+                operation.parentId = index.idAt(parentPosition);
+            }
+            operation.item = item;
+            return operation;
+        }
+    }
+
+    /**
+     * 结点标识
+     **/
+    @Getter
+    @Setter
+    public static class Key {
+
+        private String nodeGroup;
+
+        private Object id;
+
+        public Key() {
+        }
+
+        public Key(String nodeGroup, Object id) {
+            this.nodeGroup = nodeGroup;
+            this.id = id;
+        }
+    }
+
+    /**
+     * 结点在索引中的位置
+     **/
+    private static int position(NodeIndex index, TreeNode<?> node) {
+        int position = index.position(node);
+        if (position < 0 || index.groupAt(position) == NodeIndex.NAMED) {
+            throw new IllegalArgumentException("结点不在树的索引中：" + node);
+        }
+        return position;
+    }
+
+    /**
+     * 父结点在索引中的位置（父结点为根结点时返回ROOT，孤立结点返回ORPHAN）
+     **/
+    private static int parentPosition(Tree tree, NodeIndex index, TreeNode<?> node) {
+        TreeNode<?> parent = node.getParent();
+        if (parent == null) {
+            return ORPHAN;
+        }
+        return parent == tree.getRoot() ? ROOT : position(index, parent);
+    }
+
+    /**
+     * 从根结点及各孤立结点可达的结点（依次先序遍历）
+     **/
+    private static Iterable<TreeNode<?>> reachable(Tree tree) {
+        List<Iterable<TreeNode<?>>> parts = new ArrayList<>(tree.getOrphans().size() + 1);
+        parts.add(TreeTraversal.preOrder(tree.getRoot()));
+        for (TreeNode<?> orphan : tree.getOrphans()) {
+            parts.add(TreeTraversal.preOrder(orphan));
+        }
+        return () -> parts.stream().flatMap((part) -> StreamSupport.stream(part.spliterator(), false)).iterator();
+    }
+
+    /**
+     * 两个父结点的标识是否相同
+     **/
+    private static boolean sameParent(NodeIndex fromIndex, int fromPosition, NodeIndex toIndex, int toPosition) {
+        if (fromPosition < 0 || toPosition < 0) {
+            return fromPosition == toPosition;
+        }
+        return fromIndex.groupAt(fromPosition) == toIndex.groupAt(toPosition) && Objects.equals(fromIndex.idAt(fromPosition), toIndex.idAt(toPosition));
+    }
+
+    /**
+     * 操作的元素，不是itemType类型时（如JSONObject、Map）转换为itemType
+     **/
+    private static Object item(Operation operation, Class<?> itemType) {
+        Object item = operation.item;
+        if (item == null || itemType == null || itemType.isInstance(item)) {
+            return item;
+        }
+        return TypeUtils.castToJavaBean(item, itemType);
+    }
+
+    private static TreeNode<?> node(Tree tree, String nodeGroup, Object id) {
+        TreeNode<?> node = tree.getIndex().get(checkGroup(nodeGroup), id);
+        if (node == null) {
+            throw new IllegalArgumentException("结点不存在：" + nodeGroup + id);
+        }
+        return node;
+    }
+
+    /**
+     * 取得已登记的结点组序号（为null时返回NAMED，如孤立结点没有父结点组）
+     *
+     * @throws IllegalArgumentException: 结点组未登记
+     **/
+    private static int checkGroup(String nodeGroup) {
+        if (nodeGroup == null) {
+            return NodeIndex.NAMED;
+        }
+        int group = NodeIndex.registeredGroup(nodeGroup);
+        if (group == NodeIndex.NAMED) {
+            throw new IllegalArgumentException("结点组不存在：" + nodeGroup);
+        }
+        return group;
+    }
+
+}
@@ -0,0 +1,238 @@
+package org.zero.utils.tree;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.ConcurrentModificationException;
+import java.util.List;
+
+/**
+ * 树的路径索引（倍增法）
+ * <p>
+ * 在区间索引的先序编号基础上预先计算各结点第2^k级祖先的跳转表，最近公共祖先、两结点间距离、第k层祖先均可在O(log n)内求得，
+ * 从根结点到结点的路径（面包屑）只需沿父结点编号回溯，无需搜索整棵树；通过combine(List<Tree>)拼接的树同样适用（拼接后会重新创建索引）。
+ * 与区间索引一样，树经Tree的方法修改后索引失效，可通过Tree.pathIndex()取得按需重建的最新索引
+ *
+ * @author : cgl
+ * @version : 1.0
+ * @since : 2026/10/17 14:46
+ **/
+public final class TreePathIndex {
+
+    private final Tree tree;
+
+    private final TreeIntervalIndex intervals;
+
+    /**
+     * 跳转表：jumps[k][number]为结点number的第2^k级祖先的先序编号，不存在为NONE
+     **/
+    private final int[][] jumps;
+
+    private TreePathIndex(Tree tree, TreeIntervalIndex intervals, int[][] jumps) {
+        this.tree = tree;
+        this.intervals = intervals;
+        this.jumps = jumps;
+    }
+
+    /**
+     * 为树创建路径索引
+     *
+     * @param tree: 树
+     * @return org.zero.utils.tree.TreePathIndex:
+     * @author : cgl
+     * @since 2026/10/17 14:46
+     **/
+    static TreePathIndex of(Tree tree) {
+        TreeIntervalIndex intervals = tree.intervalIndex();
+        int size = intervals.size();
+        int maxDepth = 0;
+        int[] parents = new int[size];
+        for (int number = 0; number < size; number++) {
+            parents[number] = intervals.parentAt(number);
+            maxDepth = Math.max(maxDepth, intervals.depthAt(number));
+        }
+
+        // 层数只需覆盖最大深度
+        int levels = 32 - Integer.numberOfLeadingZeros(Math.max(1, maxDepth));
+        int[][] jumps = new int[levels][];
+        jumps[0] = parents;
+        for (int k = 1; k < levels; k++) {
+            int[] previous = jumps[k - 1];
+            int[] current = new int[size];
+            for (int number = 0; number < size; number++) {
+                int middle = previous[number];
+                current[number] = middle == TreeIntervalIndex.NONE ? TreeIntervalIndex.NONE : previous[middle];
+            }
+            jumps[k] = current;
+        }
+        return new TreePathIndex(tree, intervals, jumps);
+    }
+
+    /**
+     * 创建后树是否未被修改（失效的索引不能再使用）
+     **/
+    public boolean isValid() {
+        return intervals.isValid();
+    }
+
+    /**
+     * 两个结点的最近公共祖先（任一结点为另一结点的祖先时即为该结点本身）
+     *
+     * @param a: 结点
+     * @param b: 结点
+     * @return org.zero.utils.tree.TreeNode: 任一结点不在树中时返回null
+     **/
+    public TreeNode<?> lca(TreeNode<?> a, TreeNode<?> b) {
+        int lca = lca(intervals.number(a), intervals.number(b));
+        return lca == TreeIntervalIndex.NONE ? null : intervals.nodeAt(lca);
+    }
+
+    /**
+     * 按结点标识（nodeGroup + id，即Tree.map的键）求最近公共祖先
+     *
+     * @param keyA: 结点标识
+     * @param keyB: 结点标识
+     * @return org.zero.utils.tree.TreeNode: 任一结点不在树中时返回null
+     **/
+    public TreeNode<?> lca(String keyA, String keyB) {
+        checkValid();
+        return lca(tree.getMap().get(keyA), tree.getMap().get(keyB));
+    }
+
+    /**
+     * 按结点组、主键求最近公共祖先
+     *
+     * @param groupA: 结点组名
+     * @param idA:    结点主键
+     * @param groupB: 结点组名
+     * @param idB:    结点主键
+     * @return org.zero.utils.tree.TreeNode: 任一结点不在树中时返回null
+     **/
+    public TreeNode<?> lca(String groupA, Object idA, String groupB, Object idB) {
+        int lca = lca(intervals.number(groupA, idA), intervals.number(groupB, idB));
+        return lca == TreeIntervalIndex.NONE ? null : intervals.nodeAt(lca);
+    }
+
+    /**
+     * 两个结点间的距离（路径上的边数）
+     *
+     * @param a: 结点
+     * @param b: 结点
+     * @return int: 任一结点不在树中时返回-1
+     **/
+    public int distance(TreeNode<?> a, TreeNode<?> b) {
+        int numberA = intervals.number(a);
+        int numberB = intervals.number(b);
+        int lca = lca(numberA, numberB);
+        if (lca == TreeIntervalIndex.NONE) {
+            return -1;
+        }
+        return intervals.depthAt(numberA) + intervals.depthAt(numberB) - 2 * intervals.depthAt(lca);
+    }
+
+    /**
+     * 结点在指定深度上的祖先结点（O(log n)）
+     *
+     * @param node:  结点
+     * @param depth: 深度（根结点为0）
+     * @return org.zero.utils.tree.TreeNode: 结点不在树中、或深度超出结点深度时返回null
+     **/
+    public TreeNode<?> ancestor(TreeNode<?> node, int depth) {
+        int number = intervals.number(node);
+        if (number == TreeIntervalIndex.NONE || depth < 0 || depth > intervals.depthAt(number)) {
+            return null;
+        }
+        return intervals.nodeAt(lift(number, intervals.depthAt(number) - depth));
+    }
+
+    /**
+     * 从根结点到结点的路径（含根结点和结点本身）
+     *
+     * @param node: 结点
+     * @return java.util.List: 结点不在树中时返回空列表
+     **/
+    public List<TreeNode<?>> path(TreeNode<?> node) {
+        int number = intervals.number(node);
+        if (number == TreeIntervalIndex.NONE) {
+            return Collections.emptyList();
+        }
+        TreeNode<?>[] path = new TreeNode<?>[intervals.depthAt(number) + 1];
+        for (int i = path.length - 1; i >= 0; i--) {
+            path[i] = intervals.nodeAt(number);
+            number = jumps[0][number];
+        }
+        List<TreeNode<?>> result = new ArrayList<>(path.length);
+        Collections.addAll(result, path);
+        return result;
+    }
+
+    /**
+     * 从结点a到结点b的路径（a先上溯到最近公共祖先，再下行到b，含两端结点）
+     *
+     * @param a: 起始结点
+     * @param b: 结束结点
+     * @return java.util.List: 任一结点不在树中时返回空列表
+     **/
+    public List<TreeNode<?>> path(TreeNode<?> a, TreeNode<?> b) {
+        int numberA = intervals.number(a);
+        int numberB = intervals.number(b);
+        int lca = lca(numberA, numberB);
+        if (lca == TreeIntervalIndex.NONE) {
+            return Collections.emptyList();
+        }
+        int up = intervals.depthAt(numberA) - intervals.depthAt(lca);
+        int down = intervals.depthAt(numberB) - intervals.depthAt(lca);
+        TreeNode<?>[] path = new TreeNode<?>[up + down + 1];
+        for (int i = 0; i <= up; i++) {
+            path[i] = intervals.nodeAt(numberA);
+            numberA = jumps[0][numberA];
+        }
+        for (int i = path.length - 1; i > up; i--) {
+            path[i] = intervals.nodeAt(numberB);
+            numberB = jumps[0][numberB];
+        }
+        List<TreeNode<?>> result = new ArrayList<>(path.length);
+        Collections.addAll(result, path);
+        return result;
+    }
+
+    /**
+     * 按先序编号求最近公共祖先：a不是b的祖先时，从高到低尝试跳转，跳转后仍不是b的祖先则跳过去，最后a的父结点即为所求
+     **/
+    private int lca(int a, int b) {
+        if (a == TreeIntervalIndex.NONE || b == TreeIntervalIndex.NONE) {
+            return TreeIntervalIndex.NONE;
+        }
+        if (intervals.contains(a, b)) {
+            return a;
+        }
+        if (intervals.contains(b, a)) {
+            return b;
+        }
+        for (int k = jumps.length - 1; k >= 0; k--) {
+            int next = jumps[k][a];
+            if (next != TreeIntervalIndex.NONE && !intervals.contains(next, b)) {
+                a = next;
+            }
+        }
+        return jumps[0][a];
+    }
+
+    /**
+     * 结点上溯steps级后的先序编号
+     **/
+    private int lift(int number, int steps) {
+        for (int k = 0; steps > 0; k++, steps >>>= 1) {
+            if ((steps & 1) != 0) {
+                number = jumps[k][number];
+            }
+        }
+        return number;
+    }
+
+    private void checkValid() {
+        if (!intervals.isValid()) {
+            throw new ConcurrentModificationException("树已被修改，路径索引已失效");
+        }
+    }
+
+}
@@ -0,0 +1,310 @@
+package org.zero.utils.tree;
+
+import java.util.Arrays;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.LongBinaryOperator;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * 树的子树汇总（自底向上）
+ * <p>
+ * 每个结点的汇总值 = 结点自身元素的值依次与各子结点（按原顺序）的汇总值合并，合并函数只需满足结合律；
+ * 按区间索引的先序编号计算，任一组兄弟子树在先序数组中连续：结点数较少的区间逆序扫描一遍即可（子结点编号大于父结点，先于父结点算完），
+ * 结点数较多的区间按兄弟子树拆分后用fork-join并行计算；long、double两种汇总值直接存放在基本类型数组中，不装箱
+ *
+ * @author : cgl
+ * @version : 1.0
+ * @since : 2026/10/17 14:48
+ **/
+public final class TreeRollup {
+
+    /**
+     * 顺序计算的最大区间结点数量
+     **/
+    private final static int SEQUENTIAL_THRESHOLD = 4096;
+
+    private TreeRollup() {
+    }
+
+    /**
+     * 汇总long值
+     *
+     * @param tree:     树
+     * @param value:    元素的值（根结点等元素为null的结点取identity）
+     * @param identity: 合并函数的单位元（如求和为0）
+     * @param combiner: 合并函数（满足结合律，如Long::sum、Math::max）
+     * @return org.zero.utils.tree.TreeRollup.LongRollup:
+     * @author : cgl
+     * @since 2026/10/17 14:48
+     **/
+    @SuppressWarnings("unchecked")
+    public static <T> LongRollup rollupLong(Tree tree, ToLongFunction<? super T> value, long identity, LongBinaryOperator combiner) {
+        TreeIntervalIndex intervals = tree.intervalIndex();
+        long[] values = new long[intervals.size()];
+        if (values.length > 0) {
+            new LongTask(intervals, (ToLongFunction<Object>) value, identity, combiner, values, 0, values.length).invoke();
+        }
+        return new LongRollup(intervals, values);
+    }
+
+    /**
+     * 汇总double值
+     *
+     * @param tree:     树
+     * @param value:    元素的值（根结点等元素为null的结点取identity）
+     * @param identity: 合并函数的单位元（如求和为0）
+     * @param combiner: 合并函数（满足结合律，如Double::sum、Math::max）
+     * @return org.zero.utils.tree.TreeRollup.DoubleRollup:
+     * @author : cgl
+     * @since 2026/10/17 14:48
+     **/
+    @SuppressWarnings("unchecked")
+    public static <T> DoubleRollup rollupDouble(Tree tree, ToDoubleFunction<? super T> value, double identity, DoubleBinaryOperator combiner) {
+        TreeIntervalIndex intervals = tree.intervalIndex();
+        double[] values = new double[intervals.size()];
+        if (values.length > 0) {
+            new DoubleTask(intervals, (ToDoubleFunction<Object>) value, identity, combiner, values, 0, values.length).invoke();
+        }
+        return new DoubleRollup(intervals, values);
+    }
+
+    /**
+     * long汇总结果
+     **/
+    public static final class LongRollup {
+
+        private final TreeIntervalIndex intervals;
+
+        private final long[] values;
+
+        private LongRollup(TreeIntervalIndex intervals, long[] values) {
+            this.intervals = intervals;
+            this.values = values;
+        }
+
+        /**
+         * 结点的汇总值
+         *
+         * @throws IllegalArgumentException: 结点不在树中
+         **/
+        public long get(TreeNode<?> node) {
+            return values[number(intervals, intervals.number(node))];
+        }
+
+        /**
+         * 按结点组、主键取得结点的汇总值
+         *
+         * @throws IllegalArgumentException: 结点不在树中
+         **/
+        public long get(String nodeGroup, Object id) {
+            return values[number(intervals, intervals.number(nodeGroup, id))];
+        }
+
+        /**
+         * 按先序编号存放的汇总值（下标即区间索引的先序编号，不复制）
+         **/
+        public long[] values() {
+            return values;
+        }
+
+        public TreeIntervalIndex getIntervalIndex() {
+            return intervals;
+        }
+    }
+
+    /**
+     * double汇总结果
+     **/
+    public static final class DoubleRollup {
+
+        private final TreeIntervalIndex intervals;
+
+        private final double[] values;
+
+        private DoubleRollup(TreeIntervalIndex intervals, double[] values) {
+            this.intervals = intervals;
+            this.values = values;
+        }
+
+        /**
+         * 结点的汇总值
+         *
+         * @throws IllegalArgumentException: 结点不在树中
+         **/
+        public double get(TreeNode<?> node) {
+            return values[number(intervals, intervals.number(node))];
+        }
+
+        /**
+         * 按结点组、主键取得结点的汇总值
+         *
+         * @throws IllegalArgumentException: 结点不在树中
+         **/
+        public double get(String nodeGroup, Object id) {
+            return values[number(intervals, intervals.number(nodeGroup, id))];
+        }
+
+        /**
+         * 按先序编号存放的汇总值（下标即区间索引的先序编号，不复制）
+         **/
+        public double[] values() {
+            return values;
+        }
+
+        public TreeIntervalIndex getIntervalIndex() {
+            return intervals;
+        }
+    }
+
+    private static int number(TreeIntervalIndex intervals, int number) {
+        if (number == TreeIntervalIndex.NONE) {
+            throw new IllegalArgumentException("结点不在树中");
+        }
+        return number;
+    }
+
+    /**
+     * 计算先序编号区间[from, to)内的汇总值，区间由若干相邻的兄弟子树组成
+     **/
+    private abstract static class RangeTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        final TreeIntervalIndex intervals;
+
+        final int from;
+
+        final int to;
+
+        RangeTask(TreeIntervalIndex intervals, int from, int to) {
+            this.intervals = intervals;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            // 区间只是单个子树时沿子树逐层向下（不递归，深层级的树不会栈溢出），记录途经结点，子结点算完后再计算
+            int[] pending = new int[16];
+            int count = 0;
+            int start = from;
+            int stop = to;
+            while (start < stop) {
+                if (stop - start <= SEQUENTIAL_THRESHOLD) {
+                    // 逆序扫描：处理到某结点时其子结点均已算完
+                    for (int node = stop - 1; node >= start; node--) {
+                        computeNode(node);
+                    }
+                    break;
+                }
+                int end = intervals.subtreeEnd(start);
+                if (end < stop) {
+                    // 多个兄弟子树：在区间中点附近的兄弟子树处拆成两半
+                    int middle = start + ((stop - start) >>> 1);
+                    int split = end;
+                    while (split < middle) {
+                        int next = intervals.subtreeEnd(split);
+                        if (next >= stop) {
+                            break;
+                        }
+                        split = next;
+                    }
+                    invokeAll(newTask(start, split), newTask(split, stop));
+                    break;
+                }
+                if (count == pending.length) {
+                    pending = Arrays.copyOf(pending, count << 1);
+                }
+                pending[count++] = start;
+                start++;
+            }
+            while (count > 0) {
+                computeNode(pending[--count]);
+            }
+        }
+
+        /**
+         * 由结点自身的值及已算完的子结点汇总值计算结点的汇总值
+         **/
+        abstract void computeNode(int node);
+
+        abstract RangeTask newTask(int from, int to);
+    }
+
+    private static final class LongTask extends RangeTask {
+
+        private static final long serialVersionUID = 1L;
+
+        private final ToLongFunction<Object> value;
+
+        private final long identity;
+
+        private final LongBinaryOperator combiner;
+
+        private final long[] values;
+
+        private LongTask(TreeIntervalIndex intervals, ToLongFunction<Object> value, long identity, LongBinaryOperator combiner, long[] values, int from, int to) {
+            super(intervals, from, to);
+            this.value = value;
+            this.identity = identity;
+            this.combiner = combiner;
+            this.values = values;
+        }
+
+        @Override
+        void computeNode(int node) {
+            Object item = intervals.nodeAt(node).getItem();
+            long result = item == null ? identity : value.applyAsLong(item);
+            int end = intervals.subtreeEnd(node);
+            for (int child = node + 1; child < end; child = intervals.subtreeEnd(child)) {
+                result = combiner.applyAsLong(result, values[child]);
+            }
+            values[node] = result;
+        }
+
+        @Override
+        RangeTask newTask(int from, int to) {
+            return new LongTask(intervals, value, identity, combiner, values, from, to);
+        }
+    }
+
+    private static final class DoubleTask extends RangeTask {
+
+        private static final long serialVersionUID = 1L;
+
+        private final ToDoubleFunction<Object> value;
+
+        private final double identity;
+
+        private final DoubleBinaryOperator combiner;
+
+        private final double[] values;
+
+        private DoubleTask(TreeIntervalIndex intervals, ToDoubleFunction<Object> value, double identity, DoubleBinaryOperator combiner, double[] values, int from, int to) {
+            super(intervals, from, to);
+            this.value = value;
+            this.identity = identity;
+            this.combiner = combiner;
+            this.values = values;
+        }
+
+        @Override
+        void computeNode(int node) {
+            Object item = intervals.nodeAt(node).getItem();
+            double result = item == null ? identity : value.applyAsDouble(item);
+            int end = intervals.subtreeEnd(node);
+            for (int child = node + 1; child < end; child = intervals.subtreeEnd(child)) {
+                result = combiner.applyAsDouble(result, values[child]);
+            }
+            values[node] = result;
+        }
+
+        @Override
+        RangeTask newTask(int from, int to) {
+            return new DoubleTask(intervals, value, identity, combiner, values, from, to);
+        }
+    }
+
+}
@@ -0,0 +1,405 @@
+package org.zero.utils.tree;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.Function;
+
+/**
+ * 树的文本检索索引（n-gram倒排索引）
+ * <p>
+ * 按区间索引的先序编号为每个结点的检索文本（忽略大小写）建立单字、双字倒排表，倒排表内的编号升序：
+ * 查询时取查询串各双字倒排表中最短的一个，与其余倒排表求交后再逐个核对是否包含查询串，不扫描整棵树；
+ * 检索结果为"命中结点 + 其祖先结点"组成的裁剪视图，视图只记录保留的先序编号，直接引用原树的结点，不复制结点或子树；
+ * 索引创建后树若经Tree的方法修改，索引即失效（同区间索引），仅修改元素内容时需重新创建索引
+ *
+ * @author : cgl
+ * @version : 1.0
+ * @since : 2026/10/17 15:02
+ **/
+public final class TreeSearchIndex {
+
+    private final static int[] EMPTY = new int[0];
+
+    private final TreeIntervalIndex intervals;
+
+    /**
+     * 先序编号 -> 检索文本（已转为小写，无文本时为null）
+     **/
+    private final String[] texts;
+
+    /**
+     * n-gram -> 倒排表下标
+     **/
+    private final LongIntMap grams;
+
+    /**
+     * 倒排表（先序编号升序）
+     **/
+    private final int[][] postings;
+
+    private TreeSearchIndex(TreeIntervalIndex intervals, String[] texts, LongIntMap grams, int[][] postings) {
+        this.intervals = intervals;
+        this.texts = texts;
+        this.grams = grams;
+        this.postings = postings;
+    }
+
+    /**
+     * 按元素字段创建检索索引
+     *
+     * @param tree:  树
+     * @param field: 检索字段（首字母大写，以便调用元素的getField方法，字段值按toString检索）
+     * @return org.zero.utils.tree.TreeSearchIndex:
+     * @throws NoSuchMethodException: 元素类型不存在对应的get方法
+     * @author : cgl
+     * @since 2026/10/17 15:02
+     **/
+    public static TreeSearchIndex of(Tree tree, String field) throws NoSuchMethodException {
+        TreeIntervalIndex intervals = tree.intervalIndex();
+        for (int number = 0; number < intervals.size(); number++) {
+            Object item = intervals.nodeAt(number).getItem();
+            if (item != null) {
+                ItemAccessor getter = ItemAccessor.of(item.getClass(), field);
+                return of(tree, (Object value) -> {
+                    Object text = getter.apply(value);
+                    return text == null ? null : text.toString();
+                });
+            }
+        }
+        return of(tree, (Object value) -> null);
+    }
+
+    /**
+     * 按取值函数创建检索索引
+     *
+     * @param tree: 树
+     * @param text: 元素的检索文本（元素为null的结点不检索，返回null表示不检索该结点）
+     * @return org.zero.utils.tree.TreeSearchIndex:
+     * @author : cgl
+     * @since 2026/10/17 15:02
+     **/
+    @SuppressWarnings("unchecked")
+    public static <T> TreeSearchIndex of(Tree tree, Function<? super T, ? extends CharSequence> text) {
+        TreeIntervalIndex intervals = tree.intervalIndex();
+        int size = intervals.size();
+        String[] texts = new String[size];
+        PostingsBuilder builder = new PostingsBuilder();
+
+        for (int number = 0; number < size; number++) {
+            Object item = intervals.nodeAt(number).getItem();
+            CharSequence value = item == null ? null : text.apply((T) item);
+            if (value == null) {
+                continue;
+            }
+            String normalized = normalize(value);
+            texts[number] = normalized;
+            for (int i = 0; i < normalized.length(); i++) {
+                char c = normalized.charAt(i);
+                builder.add(c, number);
+                if (i + 1 < normalized.length()) {
+                    builder.add(bigram(c, normalized.charAt(i + 1)), number);
+                }
+            }
+        }
+        return new TreeSearchIndex(intervals, texts, builder.grams, builder.build());
+    }
+
+    /**
+     * 创建后树是否未被修改（失效的索引不能再使用）
+     **/
+    public boolean isValid() {
+        return intervals.isValid();
+    }
+
+    /**
+     * 查找检索文本包含查询串（忽略大小写）的结点
+     *
+     * @param query: 查询串（为空时不命中任何结点）
+     * @return int[]: 命中结点的先序编号（升序）
+     * @author : cgl
+     * @since 2026/10/17 15:02
+     **/
+    public int[] search(String query) {
+        checkValid();
+        if (query == null || "".equals(query)) {
+            return EMPTY;
+        }
+        String normalized = normalize(query);
+        if (normalized.length() == 1) {
+            return posting(normalized.charAt(0)).clone();
+        }
+
+        // 各双字倒排表按长度升序求交，交集为空即可结束
+        int gramCount = normalized.length() - 1;
+        int[][] lists = new int[gramCount][];
+        for (int i = 0; i < gramCount; i++) {
+            lists[i] = posting(bigram(normalized.charAt(i), normalized.charAt(i + 1)));
+            if (lists[i].length == 0) {
+                return EMPTY;
+            }
+        }
+        Arrays.sort(lists, (a, b) -> Integer.compare(a.length, b.length));
+        int[] candidates = lists[0].clone();
+        int count = candidates.length;
+        for (int i = 1; i < gramCount && count > 0; i++) {
+            if (lists[i] != lists[i - 1]) {
+                count = intersect(candidates, count, lists[i]);
+            }
+        }
+
+        // 双字均出现不代表按顺序相连，逐个核对
+        int hits = 0;
+        for (int i = 0; i < count; i++) {
+            int number = candidates[i];
+            if (gramCount == 1 || texts[number].contains(normalized)) {
+                candidates[hits++] = number;
+            }
+        }
+        return Arrays.copyOf(candidates, hits);
+    }
+
+    /**
+     * 检索并裁剪树：保留命中结点及其所有祖先结点
+     *
+     * @param query: 查询串（忽略大小写，为空时视图包含整棵树、不标记命中结点）
+     * @return org.zero.utils.tree.TreeSearchIndex.View:
+     * @author : cgl
+     * @since 2026/10/17 15:02
+     **/
+    public View filter(String query) {
+        checkValid();
+        BitSet included = new BitSet(intervals.size());
+        if (query == null || "".equals(query)) {
+            included.set(0, intervals.size());
+            return new View(EMPTY, included);
+        }
+        int[] hits = search(query);
+        for (int hit : hits) {
+            // 沿父结点向上标记，遇到已标记的结点即停止（其祖先必已标记），总代价与视图结点数成正比
+            for (int number = hit; number != TreeIntervalIndex.NONE && !included.get(number); number = intervals.parentAt(number)) {
+                included.set(number);
+            }
+        }
+        return new View(hits, included);
+    }
+
+    public TreeIntervalIndex getIntervalIndex() {
+        return intervals;
+    }
+
+    /**
+     * 检索结果视图（命中结点 + 祖先结点，按原树结构组织，结点为原树结点的引用）
+     **/
+    public final class View {
+
+        private final int[] hits;
+
+        private final BitSet included;
+
+        private View(int[] hits, BitSet included) {
+            this.hits = hits;
+            this.included = included;
+        }
+
+        /**
+         * 视图的根结点（视图为空时为null）
+         **/
+        public TreeNode<?> getRoot() {
+            return included.isEmpty() ? null : nodeAt(0);
+        }
+
+        /**
+         * 命中结点（先序）
+         **/
+        public List<TreeNode<?>> hits() {
+            return new AbstractList<TreeNode<?>>() {
+                @Override
+                public TreeNode<?> get(int i) {
+                    return nodeAt(hits[i]);
+                }
+
+                @Override
+                public int size() {
+                    return hits.length;
+                }
+            };
+        }
+
+        /**
+         * 命中结点数量
+         **/
+        public int hitCount() {
+            return hits.length;
+        }
+
+        /**
+         * 视图中的结点数量
+         **/
+        public int size() {
+            return included.cardinality();
+        }
+
+        /**
+         * 结点是否在视图中（命中结点或其祖先）
+         **/
+        public boolean contains(TreeNode<?> node) {
+            int number = intervals.number(node);
+            return number != TreeIntervalIndex.NONE && included.get(number);
+        }
+
+        /**
+         * 结点是否为命中结点
+         **/
+        public boolean isHit(TreeNode<?> node) {
+            int number = intervals.number(node);
+            return number != TreeIntervalIndex.NONE && Arrays.binarySearch(hits, number) >= 0;
+        }
+
+        /**
+         * 结点在视图中的子结点（按原顺序），结点不在视图中时为空
+         **/
+        public List<TreeNode<?>> children(TreeNode<?> node) {
+            int number = intervals.number(node);
+            if (number == TreeIntervalIndex.NONE || !included.get(number)) {
+                return Collections.emptyList();
+            }
+            // 只访问视图中的结点：取区间内下一个保留的编号即为子结点，再跳过其子树
+            List<TreeNode<?>> children = new ArrayList<>();
+            int end = intervals.subtreeEnd(number);
+            for (int child = included.nextSetBit(number + 1); child >= 0 && child < end; child = included.nextSetBit(intervals.subtreeEnd(child))) {
+                children.add(nodeAt(child));
+            }
+            return children;
+        }
+
+        /**
+         * 以先序顺序遍历视图中的结点
+         **/
+        public Iterable<TreeNode<?>> preOrder() {
+            return () -> new Iterator<TreeNode<?>>() {
+
+                private int next = included.nextSetBit(0);
+
+                @Override
+                public boolean hasNext() {
+                    return next >= 0;
+                }
+
+                @Override
+                public TreeNode<?> next() {
+                    if (next < 0) {
+                        throw new NoSuchElementException();
+                    }
+                    TreeNode<?> node = nodeAt(next);
+                    next = included.nextSetBit(next + 1);
+                    return node;
+                }
+            };
+        }
+
+        private TreeNode<?> nodeAt(int number) {
+            checkValid();
+            return intervals.nodeAt(number);
+        }
+    }
+
+    /**
+     * 倒排表构建器（按先序编号递增的顺序添加）
+     **/
+    private static final class PostingsBuilder {
+
+        private final LongIntMap grams = new LongIntMap(1024);
+
+        private int[][] postings = new int[256][];
+
+        private int[] lengths = new int[256];
+
+        private void add(long gram, int number) {
+            int list = grams.get(gram);
+            if (list == LongIntMap.MISSING) {
+                list = grams.size();
+                grams.put(gram, list);
+                if (list == postings.length) {
+                    postings = Arrays.copyOf(postings, list << 1);
+                    lengths = Arrays.copyOf(lengths, list << 1);
+                }
+                postings[list] = new int[4];
+            }
+            int length = lengths[list];
+            // 同一文本中重复出现的n-gram只记录一次
+            if (length > 0 && postings[list][length - 1] == number) {
+                return;
+            }
+            if (length == postings[list].length) {
+                postings[list] = Arrays.copyOf(postings[list], length << 1);
+            }
+            postings[list][length] = number;
+            lengths[list] = length + 1;
+        }
+
+        private int[][] build() {
+            int[][] trimmed = new int[grams.size()][];
+            for (int list = 0; list < trimmed.length; list++) {
+                trimmed[list] = Arrays.copyOf(postings[list], lengths[list]);
+            }
+            return trimmed;
+        }
+    }
+
+    private int[] posting(long gram) {
+        int list = grams.get(gram);
+        return list == LongIntMap.MISSING ? EMPTY : postings[list];
+    }
+
+    /**
+     * 有序数组求交（结果写回candidates的前部）
+     *
+     * @return int: 交集元素数量
+     **/
+    private static int intersect(int[] candidates, int count, int[] list) {
+        int result = 0;
+        int j = 0;
+        for (int i = 0; i < count && j < list.length; i++) {
+            int number = candidates[i];
+            while (j < list.length && list[j] < number) {
+                j++;
+            }
+            if (j < list.length && list[j] == number) {
+                candidates[result++] = number;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 双字n-gram的键（与单字的键不重叠）
+     **/
+    private static long bigram(char first, char second) {
+        return 1L << 32 | (long) first << 16 | second;
+    }
+
+    /**
+     * 逐字符转小写（不改变长度，查询串与检索文本的下标一一对应）
+     **/
+    private static String normalize(CharSequence value) {
+        char[] chars = new char[value.length()];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = Character.toLowerCase(value.charAt(i));
+        }
+        return new String(chars);
+    }
+
+    private void checkValid() {
+        if (!intervals.isValid()) {
+            throw new ConcurrentModificationException("树已被修改，检索索引已失效");
+        }
+    }
+
+}
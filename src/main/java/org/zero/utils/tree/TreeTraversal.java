@@ -0,0 +1,317 @@
+package org.zero.utils.tree;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * 树的非递归遍历
+ * <p>
+ * 深度优先（先序、后序）遍历使用数组实现的显式栈，广度优先遍历使用数组实现的循环队列，遍历过程中不为每个结点创建栈帧或包装对象，
+ * 深层级的树也不会栈溢出；可拆分迭代器按子树拆分，使tree.stream().parallel()能把不同子树分给不同线程处理。
+ * 遍历过程中不能修改树结构
+ *
+ * @author : cgl
+ * @version : 1.0
+ * @since : 2026/10/17 14:47
+ **/
+public final class TreeTraversal {
+
+    private TreeTraversal() {
+    }
+
+    /**
+     * 先序遍历（父结点在子结点之前，兄弟结点按原顺序）
+     *
+     * @param root: 遍历起点（为null时不遍历任何结点）
+     * @return java.lang.Iterable:
+     * @author : cgl
+     * @since 2026/10/17 14:47
+     **/
+    public static Iterable<TreeNode<?>> preOrder(TreeNode<?> root) {
+        return () -> new DepthFirstIterator(root, false);
+    }
+
+    /**
+     * 后序遍历（子结点在父结点之前，兄弟结点按原顺序）
+     *
+     * @param root: 遍历起点（为null时不遍历任何结点）
+     * @return java.lang.Iterable:
+     * @author : cgl
+     * @since 2026/10/17 14:47
+     **/
+    public static Iterable<TreeNode<?>> postOrder(TreeNode<?> root) {
+        return () -> new DepthFirstIterator(root, true);
+    }
+
+    /**
+     * 广度优先遍历（按层级，同一层级内按先序顺序）
+     *
+     * @param root: 遍历起点（为null时不遍历任何结点）
+     * @return java.lang.Iterable:
+     * @author : cgl
+     * @since 2026/10/17 14:47
+     **/
+    public static Iterable<TreeNode<?>> breadthFirst(TreeNode<?> root) {
+        return () -> new BreadthFirstIterator(root);
+    }
+
+    /**
+     * 以先序顺序遍历子树的流
+     *
+     * @param root:     遍历起点（为null时为空流）
+     * @param parallel: 是否为并行流（按子树拆分）
+     * @return java.util.stream.Stream:
+     * @author : cgl
+     * @since 2026/10/17 14:47
+     **/
+    public static Stream<TreeNode<?>> stream(TreeNode<?> root, boolean parallel) {
+        return StreamSupport.stream(spliterator(root, Long.MAX_VALUE), parallel);
+    }
+
+    /**
+     * 按子树拆分的可拆分迭代器（先序顺序）
+     *
+     * @param root:          遍历起点（为null时不遍历任何结点）
+     * @param estimatedSize: 预估结点数量（未知时为Long.MAX_VALUE）
+     * @return java.util.Spliterator:
+     * @author : cgl
+     * @since 2026/10/17 14:47
+     **/
+    public static Spliterator<TreeNode<?>> spliterator(TreeNode<?> root, long estimatedSize) {
+        return new SubtreeSpliterator(root, estimatedSize);
+    }
+
+    /**
+     * 数组实现的栈：栈顶为下一个出栈的结点，expanded标记结点的子结点是否已入栈
+     **/
+    private static class NodeStack {
+
+        TreeNode<?>[] nodes = new TreeNode<?>[16];
+
+        boolean[] expanded = new boolean[16];
+
+        int top;
+
+        void push(TreeNode<?> node, boolean isExpanded) {
+            ensureCapacity(top + 1);
+            nodes[top] = node;
+            expanded[top++] = isExpanded;
+        }
+
+        /**
+         * 子结点入栈，入栈后第一个子结点在栈顶
+         **/
+        void pushChildren(TreeNode<?> node) {
+            int from = top;
+            ensureCapacity(top + node.getChildren().size());
+            for (TreeNode<?> child : node.getChildren()) {
+                nodes[top] = child;
+                expanded[top++] = false;
+            }
+            // 按原顺序入栈后原地反转
+            for (int i = from, j = top - 1; i < j; i++, j--) {
+                TreeNode<?> temp = nodes[i];
+                nodes[i] = nodes[j];
+                nodes[j] = temp;
+            }
+        }
+
+        void ensureCapacity(int capacity) {
+            if (capacity > nodes.length) {
+                int length = Math.max(nodes.length << 1, capacity);
+                nodes = Arrays.copyOf(nodes, length);
+                expanded = Arrays.copyOf(expanded, length);
+            }
+        }
+    }
+
+    /**
+     * 深度优先迭代器
+     **/
+    private static final class DepthFirstIterator extends NodeStack implements Iterator<TreeNode<?>> {
+
+        private final boolean postOrder;
+
+        private DepthFirstIterator(TreeNode<?> root, boolean postOrder) {
+            this.postOrder = postOrder;
+            if (root != null) {
+                push(root, false);
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return top > 0;
+        }
+
+        @Override
+        public TreeNode<?> next() {
+            if (top == 0) {
+                throw new NoSuchElementException();
+            }
+            if (!postOrder) {
+                TreeNode<?> node = nodes[--top];
+                nodes[top] = null;
+                pushChildren(node);
+                return node;
+            }
+            // 后序：结点首次到达栈顶时留在栈中并压入子结点，子结点全部出栈后再出栈
+            while (!expanded[top - 1]) {
+                expanded[top - 1] = true;
+                pushChildren(nodes[top - 1]);
+            }
+            TreeNode<?> node = nodes[--top];
+            nodes[top] = null;
+            return node;
+        }
+    }
+
+    /**
+     * 广度优先迭代器（循环队列）
+     **/
+    private static final class BreadthFirstIterator implements Iterator<TreeNode<?>> {
+
+        private TreeNode<?>[] queue = new TreeNode<?>[16];
+
+        private int head;
+
+        private int size;
+
+        private BreadthFirstIterator(TreeNode<?> root) {
+            if (root != null) {
+                queue[0] = root;
+                size = 1;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return size > 0;
+        }
+
+        @Override
+        public TreeNode<?> next() {
+            if (size == 0) {
+                throw new NoSuchElementException();
+            }
+            TreeNode<?> node = queue[head];
+            queue[head] = null;
+            head = (head + 1) & (queue.length - 1);
+            size--;
+            int childCount = node.getChildren().size();
+            if (size + childCount > queue.length) {
+                grow(size + childCount);
+            }
+            for (TreeNode<?> child : node.getChildren()) {
+                queue[(head + size++) & (queue.length - 1)] = child;
+            }
+            return node;
+        }
+
+        /**
+         * 扩容到不小于capacity的2的幂，队列元素移到数组开头
+         **/
+        private void grow(int capacity) {
+            int length = queue.length;
+            while (length < capacity) {
+                length <<= 1;
+            }
+            TreeNode<?>[] grown = new TreeNode<?>[length];
+            for (int i = 0; i < size; i++) {
+                grown[i] = queue[(head + i) & (queue.length - 1)];
+            }
+            queue = grown;
+            head = 0;
+        }
+    }
+
+    /**
+     * 按子树拆分的可拆分迭代器
+     * <p>
+     * 栈中为尚未遍历的子树根结点（未展开的结点遍历时连同其子树一起遍历，已展开的结点只遍历其本身）；
+     * 拆分时把栈顶一半（遍历顺序靠前的子树）交给新的迭代器，栈中只剩一个子树时先展开它，使其子结点可被拆分
+     **/
+    private static final class SubtreeSpliterator extends NodeStack implements Spliterator<TreeNode<?>> {
+
+        private long estimatedSize;
+
+        private SubtreeSpliterator(TreeNode<?> root, long estimatedSize) {
+            this.estimatedSize = root == null ? 0 : estimatedSize;
+            if (root != null) {
+                push(root, false);
+            }
+        }
+
+        private SubtreeSpliterator(TreeNode<?>[] nodes, boolean[] expanded, long estimatedSize) {
+            this.nodes = nodes;
+            this.expanded = expanded;
+            this.top = nodes.length;
+            this.estimatedSize = estimatedSize;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super TreeNode<?>> action) {
+            if (top == 0) {
+                return false;
+            }
+            TreeNode<?> node = nodes[--top];
+            nodes[top] = null;
+            if (!expanded[top]) {
+                pushChildren(node);
+            }
+            action.accept(node);
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super TreeNode<?>> action) {
+            while (top > 0) {
+                TreeNode<?> node = nodes[--top];
+                nodes[top] = null;
+                if (!expanded[top]) {
+                    pushChildren(node);
+                }
+                action.accept(node);
+            }
+        }
+
+        @Override
+        public Spliterator<TreeNode<?>> trySplit() {
+            if (top == 1 && !expanded[0] && !nodes[0].getChildren().isEmpty()) {
+                // 只剩一个子树：结点本身留在栈顶，子结点压在其下
+                TreeNode<?> node = nodes[0];
+                top = 0;
+                pushChildren(node);
+                push(node, true);
+            }
+            if (top < 2) {
+                return null;
+            }
+            int half = top >>> 1;
+            int from = top - half;
+            SubtreeSpliterator prefix = new SubtreeSpliterator(Arrays.copyOfRange(nodes, from, top), Arrays.copyOfRange(expanded, from, top), estimatedSize >>> 1);
+            Arrays.fill(nodes, from, top, null);
+            top = from;
+            if (estimatedSize != Long.MAX_VALUE) {
+                estimatedSize -= prefix.estimatedSize;
+            }
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return top == 0 ? 0 : estimatedSize;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | NONNULL;
+        }
+    }
+
+}